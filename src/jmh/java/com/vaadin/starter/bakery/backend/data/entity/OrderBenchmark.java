@@ -0,0 +1,41 @@
+package com.vaadin.starter.bakery.backend.data.entity;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.starter.bakery.benchmark.OrderListState;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class OrderBenchmark {
+
+	@Benchmark
+	public long getTotalPrice(OrderListState state) {
+		long total = 0;
+		for (Order order : state.orders) {
+			total += order.getTotalPrice();
+		}
+		return total;
+	}
+
+	@Benchmark
+	public long updateTotalPrice(OrderListState state) {
+		long total = 0;
+		for (Order order : state.orders) {
+			order.updateTotalPrice();
+			total += order.getTotalPrice();
+		}
+		return total;
+	}
+}
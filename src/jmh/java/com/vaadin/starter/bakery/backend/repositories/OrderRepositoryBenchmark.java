@@ -0,0 +1,167 @@
+package com.vaadin.starter.bakery.backend.repositories;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import com.vaadin.starter.bakery.backend.data.OrderState;
+import com.vaadin.starter.bakery.benchmark.DatabaseState;
+import com.vaadin.starter.bakery.benchmark.StatementCounter;
+import com.vaadin.starter.bakery.ui.utils.BakeryConst;
+
+/**
+ * Times the {@link OrderRepository} queries used by the dashboard and the
+ * storefront at 10k, 100k and 1M orders. The sample time mode reports the
+ * latency percentiles, and {@link StatementCounter} the number of SQL
+ * statements per call.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class OrderRepositoryBenchmark {
+
+	private static final String NAME_FRAGMENT = "an";
+
+	private static final int PAGE_SIZE = 50;
+
+	private static final Sort SORT = Sort.by(BakeryConst.DEFAULT_SORT_DIRECTION, BakeryConst.ORDER_SORT_FIELDS);
+
+	private static final Set<OrderState> DELIVERED_STATES = EnumSet.of(OrderState.DELIVERED);
+
+	private static final Set<OrderState> NOT_AVAILABLE_STATES = EnumSet.of(OrderState.NEW, OrderState.CONFIRMED,
+			OrderState.PROBLEM);
+
+	private DatabaseState database;
+
+	private OrderRepository repository;
+
+	private LocalDate today;
+
+	@Setup(Level.Trial)
+	public void setUp(DatabaseState database) {
+		this.database = database;
+		this.repository = database.getBean(OrderRepository.class);
+		this.today = LocalDate.now();
+	}
+
+	@Benchmark
+	public Object countPerMonth(StatementCounter counter) {
+		return count(counter, () -> repository.countPerMonth(OrderState.DELIVERED, today.getYear()));
+	}
+
+	@Benchmark
+	public Object countPerDay(StatementCounter counter) {
+		return count(counter,
+				() -> repository.countPerDay(OrderState.DELIVERED, today.getYear(), today.getMonthValue()));
+	}
+
+	@Benchmark
+	public Object sumPerMonthLastThreeYears(StatementCounter counter) {
+		return count(counter, () -> repository.sumPerMonthLastThreeYears(OrderState.DELIVERED, today.getYear()));
+	}
+
+	@Benchmark
+	public Object countPerProduct(StatementCounter counter) {
+		return count(counter,
+				() -> repository.countPerProduct(OrderState.DELIVERED, today.getYear(), today.getMonthValue()));
+	}
+
+	@Benchmark
+	public Object findByCustomerFullNameContainingIgnoreCase(StatementCounter counter) {
+		return count(counter, () -> repository.findByCustomerFullNameContainingIgnoreCase(NAME_FRAGMENT, page()));
+	}
+
+	@Benchmark
+	public Object findByCustomerFullNameContainingIgnoreCaseAndDueDateAfter(StatementCounter counter) {
+		return count(counter, () -> repository.findByCustomerFullNameContainingIgnoreCaseAndDueDateAfter(NAME_FRAGMENT,
+				today.minusDays(1), page()));
+	}
+
+	@Benchmark
+	public Object scrollByCustomerFullNameContainingIgnoreCase(StatementCounter counter) {
+		return count(counter, () -> repository.findByCustomerFullNameContainingIgnoreCase(NAME_FRAGMENT,
+				ScrollPosition.keyset(), Limit.of(PAGE_SIZE), SORT));
+	}
+
+	@Benchmark
+	public Object scrollByCustomerFullNameContainingIgnoreCaseAndDueDateAfter(StatementCounter counter) {
+		return count(counter, () -> repository.findByCustomerFullNameContainingIgnoreCaseAndDueDateAfter(NAME_FRAGMENT,
+				today.minusDays(1), ScrollPosition.keyset(), Limit.of(PAGE_SIZE), SORT));
+	}
+
+	@Benchmark
+	public long countByDueDateAfter(StatementCounter counter) {
+		return count(counter, () -> repository.countByDueDateAfter(today.minusDays(1)));
+	}
+
+	@Benchmark
+	public long countByDueDate(StatementCounter counter) {
+		return count(counter, () -> repository.countByDueDate(today));
+	}
+
+	@Benchmark
+	public long countByDueDateAndStateIn(StatementCounter counter) {
+		return count(counter, () -> repository.countByDueDateAndStateIn(today, DELIVERED_STATES));
+	}
+
+	@Benchmark
+	public long countByState(StatementCounter counter) {
+		return count(counter, () -> repository.countByState(OrderState.NEW));
+	}
+
+	@Benchmark
+	public Object getDeliveryStats(StatementCounter counter) {
+		return count(counter, () -> repository.getDeliveryStats(today, today.plusDays(1), OrderState.DELIVERED,
+				NOT_AVAILABLE_STATES, OrderState.NEW));
+	}
+
+	@Benchmark
+	public Object findDueDatesAndTimesAfter(StatementCounter counter) {
+		return count(counter, () -> repository.findDueDatesAndTimesAfter(OrderState.READY, today, LocalTime.now(),
+				Limit.of(1)));
+	}
+
+	@Benchmark
+	public Object findFirstDueTime(StatementCounter counter) {
+		return count(counter, () -> repository.findFirstDueTime(today.plusDays(1)));
+	}
+
+	@Benchmark
+	public Object findPlacedTimeOfLastOrderDueFrom(StatementCounter counter) {
+		return count(counter, () -> repository.findPlacedTimeOfLastOrderDueFrom(today));
+	}
+
+	private static Pageable page() {
+		return PageRequest.of(0, PAGE_SIZE, SORT);
+	}
+
+	private <T> T count(StatementCounter counter, Supplier<T> query) {
+		counter.start(database.statistics);
+		T result = query.get();
+		counter.stop(database.statistics);
+		return result;
+	}
+}
@@ -0,0 +1,36 @@
+package com.vaadin.starter.bakery.benchmark;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.vaadin.starter.bakery.app.BenchmarkDataGenerator;
+import com.vaadin.starter.bakery.app.DataGenerator;
+import com.vaadin.starter.bakery.backend.data.entity.User;
+import com.vaadin.starter.bakery.backend.repositories.UserRepository;
+import com.vaadin.starter.bakery.backend.service.UserService;
+
+/**
+ * The backend of the application without the web and UI layers, for
+ * benchmarking the repositories and services against a seeded database.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration(excludeName = { "com.vaadin.flow.spring.SpringBootAutoConfiguration",
+		"com.vaadin.flow.spring.SpringSecurityAutoConfiguration" })
+@EnableJpaRepositories(basePackageClasses = UserRepository.class)
+@EntityScan(basePackageClasses = User.class)
+@ComponentScan(basePackageClasses = UserService.class)
+@Import({ DataGenerator.class, BenchmarkDataGenerator.class })
+public class BenchmarkApplication {
+
+	@Bean
+	public PasswordEncoder passwordEncoder() {
+		return new BCryptPasswordEncoder();
+	}
+}
@@ -0,0 +1,64 @@
+package com.vaadin.starter.bakery.benchmark;
+
+import java.io.File;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the backend against an H2 database holding the demo data plus the
+ * given number of generated orders, see {@code BenchmarkDataGenerator}.
+ * <p>
+ * There is one database file per order count under
+ * {@code bakery.benchmark.database-dir} (target/benchmark-db by default). The
+ * orders are only generated on the first run, so that the forks of every
+ * benchmark share the same data and do not pay for seeding it again.
+ */
+@State(Scope.Benchmark)
+public class DatabaseState {
+
+	@Param({ "10000", "100000", "1000000" })
+	public int orderCount;
+
+	public ConfigurableApplicationContext context;
+
+	public Statistics statistics;
+
+	@Setup(Level.Trial)
+	public void start() {
+		File directory = new File(System.getProperty("bakery.benchmark.database-dir", "target/benchmark-db"));
+		String url = "jdbc:h2:file:" + new File(directory, "orders-" + orderCount).getAbsolutePath();
+		context = new SpringApplicationBuilder(BenchmarkApplication.class)
+				.web(WebApplicationType.NONE)
+				.profiles("benchmark-data")
+				.properties("spring.main.banner-mode=off",
+						"spring.devtools.restart.enabled=false",
+						"spring.datasource.url=" + url,
+						"spring.jpa.hibernate.ddl-auto=update",
+						"spring.jpa.properties.hibernate.generate_statistics=true",
+						"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn",
+						"bakery.benchmark-data.orders=" + orderCount)
+				.run();
+		statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	public <T> T getBean(Class<T> type) {
+		return context.getBean(type);
+	}
+}
@@ -0,0 +1,110 @@
+package com.vaadin.starter.bakery.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.vaadin.starter.bakery.backend.data.OrderState;
+import com.vaadin.starter.bakery.backend.data.entity.Customer;
+import com.vaadin.starter.bakery.backend.data.entity.Order;
+import com.vaadin.starter.bakery.backend.data.entity.OrderItem;
+import com.vaadin.starter.bakery.backend.data.entity.PickupLocation;
+import com.vaadin.starter.bakery.backend.data.entity.Product;
+import com.vaadin.starter.bakery.backend.data.entity.User;
+import com.vaadin.starter.bakery.test.TestEntities;
+
+/**
+ * A list of synthetic orders sorted by due date, as the storefront and the
+ * dashboard read them from the database.
+ * <p>
+ * The due dates are spread evenly over a year before and a year after today, so
+ * that every storefront header and dashboard branch is exercised. The same seed
+ * always produces the same orders. Customers, products and pickup locations come
+ * from small shared pools to keep a million orders within a moderate heap.
+ */
+@State(Scope.Benchmark)
+public class OrderListState {
+
+	private static final int DAYS = 365;
+
+	private static final int CUSTOMERS = 1000;
+
+	private static final OrderState[] STATES = OrderState.values();
+
+	private static final String[] PRODUCT_NAMES = { "Strawberry Bun", "Blueberry Cheese Cake", "Raspberry Croissant",
+			"Apple Pie", "Cinnamon Roll", "Vanilla Cracker", "Chocolate Donut", "Banana Bread" };
+
+	private static final String[] LOCATION_NAMES = { "Store", "Bakery" };
+
+	@Param({ "1000", "10000", "100000", "1000000" })
+	public int orderCount;
+
+	@Param("1")
+	public long seed;
+
+	public List<Order> orders;
+
+	@Setup(Level.Trial)
+	public void createOrders() {
+		orders = createOrders(orderCount, seed);
+	}
+
+	public static List<Order> createOrders(int orderCount, long seed) {
+		Random random = new Random(seed);
+		User user = new User();
+		user.setFirstName("Malin");
+
+		List<Product> products = new ArrayList<>();
+		for (String name : PRODUCT_NAMES) {
+			Product product = new Product();
+			product.setName(name);
+			product.setPrice(100 + random.nextInt(2000));
+			products.add(product);
+		}
+		List<PickupLocation> locations = new ArrayList<>();
+		for (String name : LOCATION_NAMES) {
+			PickupLocation location = new PickupLocation();
+			location.setName(name);
+			locations.add(location);
+		}
+		List<Customer> customers = new ArrayList<>();
+		for (int i = 0; i < CUSTOMERS; i++) {
+			Customer customer = new Customer();
+			customer.setFullName("Customer " + i);
+			customer.setPhoneNumber("+1-555-" + (1000 + i));
+			customers.add(customer);
+		}
+
+		LocalDate first = LocalDate.now().minusDays(DAYS);
+		List<Order> orders = new ArrayList<>(orderCount);
+		for (int i = 0; i < orderCount; i++) {
+			Order order = new Order(user);
+			TestEntities.withId(order, i + 1L);
+			order.setDueDate(first.plusDays((long) i * 2 * DAYS / orderCount));
+			order.setDueTime(LocalTime.of(8 + random.nextInt(10), 15 * random.nextInt(4)));
+			order.setPickupLocation(locations.get(random.nextInt(locations.size())));
+			order.setCustomer(customers.get(random.nextInt(customers.size())));
+			order.changeState(user, STATES[random.nextInt(STATES.length)]);
+
+			List<OrderItem> items = new ArrayList<>();
+			int itemCount = 1 + random.nextInt(3);
+			for (int j = 0; j < itemCount; j++) {
+				OrderItem item = new OrderItem();
+				item.setProduct(products.get(random.nextInt(products.size())));
+				item.setQuantity(1 + random.nextInt(10));
+				items.add(item);
+			}
+			order.setItems(items);
+			orders.add(order);
+		}
+		return orders;
+	}
+}
@@ -0,0 +1,56 @@
+package com.vaadin.starter.bakery.benchmark;
+
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * Reports the JDBC statements prepared by Hibernate next to the timings. The
+ * secondary result {@code statementsPerCall} shows N+1 selects and extra count
+ * queries, {@code statements} and {@code calls} are the totals it is computed
+ * from.
+ * <p>
+ * JMH sums event counters over all measurement iterations, forks and threads,
+ * so the statements per call of each iteration are divided by their number to
+ * report the average.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class StatementCounter {
+
+	public long statements;
+
+	public long calls;
+
+	private long before;
+
+	private int iterations;
+
+	@Setup(Level.Trial)
+	public void setUp(BenchmarkParams params) {
+		iterations = params.getMeasurement().getCount() * Math.max(1, params.getForks()) * params.getThreads();
+	}
+
+	@Setup(Level.Iteration)
+	public void reset() {
+		statements = 0;
+		calls = 0;
+	}
+
+	public void start(Statistics statistics) {
+		before = statistics.getPrepareStatementCount();
+	}
+
+	public void stop(Statistics statistics) {
+		statements += statistics.getPrepareStatementCount() - before;
+		calls++;
+	}
+
+	public double statementsPerCall() {
+		return calls == 0 ? 0 : (double) statements / calls / iterations;
+	}
+}
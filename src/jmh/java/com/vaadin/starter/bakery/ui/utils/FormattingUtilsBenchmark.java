@@ -0,0 +1,30 @@
+package com.vaadin.starter.bakery.ui.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.starter.bakery.backend.data.entity.Order;
+import com.vaadin.starter.bakery.benchmark.OrderListState;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FormattingUtilsBenchmark {
+
+	@Benchmark
+	public void formatAsCurrency(OrderListState state, Blackhole blackhole) {
+		for (Order order : state.orders) {
+			blackhole.consume(FormattingUtils.formatAsCurrency(order.getTotalPrice()));
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package com.vaadin.starter.bakery.ui.views.dashboard;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.starter.bakery.backend.data.DeliveryStats;
+import com.vaadin.starter.bakery.ui.views.storefront.beans.OrdersCountData;
+import com.vaadin.starter.bakery.ui.views.storefront.beans.OrdersCountDataWithChart;
+
+/**
+ * Measures building the dashboard counters. The orders they refer to are looked
+ * up by targeted queries, see {@code OrderRepositoryBenchmark}, so the cost no
+ * longer depends on the number of orders.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DashboardUtilsBenchmark {
+
+	private static final DeliveryStats DELIVERY_STATS = new DeliveryStats();
+
+	static {
+		DELIVERY_STATS.setDeliveredToday(3);
+		DELIVERY_STATS.setDueToday(10);
+		DELIVERY_STATS.setDueTomorrow(12);
+		DELIVERY_STATS.setNotAvailableToday(2);
+		DELIVERY_STATS.setNewOrders(40);
+	}
+
+	@Benchmark
+	public OrdersCountDataWithChart getTodaysOrdersCountData() {
+		return DashboardUtils.getTodaysOrdersCountData(DELIVERY_STATS, LocalDateTime.now().plusHours(1));
+	}
+
+	@Benchmark
+	public OrdersCountData getTomorrowOrdersCountData() {
+		return DashboardUtils.getTomorrowOrdersCountData(DELIVERY_STATS, LocalTime.of(9, 30));
+	}
+
+	@Benchmark
+	public OrdersCountData getNewOrdersCountData() {
+		return DashboardUtils.getNewOrdersCountData(DELIVERY_STATS, LocalDateTime.now().minusMinutes(90));
+	}
+}
@@ -0,0 +1,55 @@
+package com.vaadin.starter.bakery.ui.views.storefront;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.dom.Element;
+import com.vaadin.starter.bakery.backend.data.entity.Order;
+import com.vaadin.starter.bakery.benchmark.OrderListState;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class OrderCardBenchmark {
+
+	@Benchmark
+	public void create(OrderListState state, Blackhole blackhole) {
+		for (Order order : state.orders) {
+			blackhole.consume(OrderCard.create(order));
+		}
+	}
+
+	@Benchmark
+	public void createAndRead(OrderListState state, Blackhole blackhole) {
+		for (Order order : state.orders) {
+			OrderCard card = OrderCard.create(order);
+			blackhole.consume(card.getPlace());
+			blackhole.consume(card.getTime());
+			blackhole.consume(card.getShortDay());
+			blackhole.consume(card.getSecondaryTime());
+			blackhole.consume(card.getMonth());
+			blackhole.consume(card.getFullDay());
+			blackhole.consume(card.getState());
+			blackhole.consume(card.getFullName());
+			blackhole.consume(card.getItems());
+		}
+	}
+
+	@Benchmark
+	public void toJson(OrderListState state, Blackhole blackhole) {
+		OrderCardProductNames productNames = new OrderCardProductNames(new Element("vaadin-grid"));
+		for (Order order : state.orders) {
+			blackhole.consume(OrderCard.create(order).toJson(productNames));
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.vaadin.starter.bakery.ui.views.storefront;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.starter.bakery.backend.data.entity.Order;
+import com.vaadin.starter.bakery.benchmark.OrderListState;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class OrderCardHeaderGeneratorBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class GeneratorState {
+		OrderCardHeaderGenerator generator;
+
+		@Setup(Level.Trial)
+		public void resetHeaderChain(OrderListState state) {
+			generator = new OrderCardHeaderGenerator();
+			generator.resetHeaderChain(true, (from, to) -> firstOrderId(state.orders, from, to));
+		}
+	}
+
+	/**
+	 * Stands in for the query of the data provider: a binary search for the
+	 * first order due on or after {@code from}.
+	 */
+	static Optional<Long> firstOrderId(List<Order> orders, LocalDate from, LocalDate to) {
+		int low = 0;
+		int high = orders.size();
+		while (from != null && low < high) {
+			int middle = (low + high) >>> 1;
+			if (orders.get(middle).getDueDate().isBefore(from)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		if (low == orders.size() || (to != null && !orders.get(low).getDueDate().isBefore(to))) {
+			return Optional.empty();
+		}
+		return Optional.of(orders.get(low).getId());
+	}
+
+	@Benchmark
+	public boolean resetHeaderChain(OrderListState state) {
+		OrderCardHeaderGenerator generator = new OrderCardHeaderGenerator();
+		return generator.resetHeaderChain(true, (from, to) -> firstOrderId(state.orders, from, to));
+	}
+
+	@Benchmark
+	public void get(OrderListState state, GeneratorState generatorState, Blackhole blackhole) {
+		for (Order order : state.orders) {
+			blackhole.consume(generatorState.generator.get(order.getId()));
+		}
+	}
+}
@@ -3,6 +3,9 @@ import { map } from 'lit/directives/map.js';
 import './order-status-badge.js';
 import { sharedStyles } from '../../../styles/shared-styles.js';
 
+// The OrderState constants in declaration order, orderCard.state is the ordinal
+const STATES = ['NEW', 'CONFIRMED', 'READY', 'DELIVERED', 'PROBLEM', 'CANCELLED'];
+
 class OrderCard extends LitElement {
   static get styles() {
     return [
@@ -151,7 +154,7 @@ class OrderCard extends LitElement {
           <div class="info-wrapper">
             <order-status-badge
               class="badge"
-              .status="${this.orderCard && this.orderCard.state}"
+              .status="${this.orderCard && STATES[this.orderCard.state]}"
             ></order-status-badge>
 
             <div class="time-place">
@@ -174,10 +177,10 @@ class OrderCard extends LitElement {
             <h3 class="name">${this.orderCard && this.orderCard.fullName}</h3>
 
             <div class="goods">
-              ${map(this.orderCard && this.orderCard.items, (item) => html`
+              ${map(this._items(), (item) => html`
                 <div class="goods-item">
                   <span class="count">${item.quantity}</span>
-                  <div>${item.product.name}</div>
+                  <div>${item.name}</div>
                 </div>`)}
             </div>
           </div>
@@ -198,6 +201,21 @@ class OrderCard extends LitElement {
     return 'order-card';
   }
 
+  /**
+   * Resolves the product name index and quantity pairs of orderCard.items
+   * against the productNames property of the enclosing grid.
+   */
+  _items() {
+    const items = (this.orderCard && this.orderCard.items) || [];
+    const grid = this.closest('vaadin-grid');
+    const names = (grid && grid.productNames) || [];
+    const result = [];
+    for (let i = 0; i + 1 < items.length; i += 2) {
+      result.push({ name: names[items[i]], quantity: items[i + 1] });
+    }
+    return result;
+  }
+
   _cardClick() {
     this.dispatchEvent(new CustomEvent('card-click'));
   }
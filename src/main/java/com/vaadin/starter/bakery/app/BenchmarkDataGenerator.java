@@ -0,0 +1,399 @@
+package com.vaadin.starter.bakery.app;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.sql.DataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.vaadin.flow.spring.annotation.SpringComponent;
+import com.vaadin.starter.bakery.backend.data.OrderState;
+import com.vaadin.starter.bakery.backend.data.entity.PickupLocation;
+import com.vaadin.starter.bakery.backend.data.entity.Product;
+import com.vaadin.starter.bakery.backend.data.entity.User;
+import com.vaadin.starter.bakery.backend.repositories.OrderRepository;
+import com.vaadin.starter.bakery.backend.repositories.PickupLocationRepository;
+import com.vaadin.starter.bakery.backend.repositories.ProductRepository;
+import com.vaadin.starter.bakery.backend.repositories.UserRepository;
+import com.vaadin.starter.bakery.backend.service.CustomerNameIndex;
+import com.vaadin.starter.bakery.backend.service.OrderRollupService;
+
+/**
+ * Adds a large, reproducible set of orders on top of the demo data, for
+ * benchmarking the dashboard and storefront queries at scale. Enabled with the
+ * {@code benchmark-data} Spring profile.
+ * <p>
+ * The date range is split into partitions of a week that are generated in
+ * parallel on a fork-join pool. Every partition has its own
+ * {@link SplittableRandom} split off a seeded root in partition order, and its
+ * own id ranges, so the same settings always produce the same data regardless
+ * of the parallelism. Rows are written with batched JDBC inserts, bypassing
+ * JPA, and the id sequences are moved past the generated ids afterwards.
+ */
+@SpringComponent
+@Profile("benchmark-data")
+public class BenchmarkDataGenerator implements ApplicationRunner, HasLogger {
+
+	private static final int PARTITION_DAYS = 7;
+
+	private static final int MAX_ITEMS_PER_ORDER = 3;
+
+	private static final int MAX_HISTORY_PER_ORDER = 4;
+
+	private static final int SEQUENCE_INCREMENT = 50;
+
+	private static final String INSERT_CUSTOMER = "insert into customer (id, version, full_name, phone_number, details) values (?, 0, ?, ?, ?)";
+
+	private static final String INSERT_ORDER = "insert into order_info (id, version, due_date, due_time, state, total_price, customer_id, pickup_location_id) values (?, 0, ?, ?, ?, ?, ?, ?)";
+
+	private static final String INSERT_ORDER_ITEM = "insert into order_item (id, version, items_id, items_order, product_id, quantity, price, comment) values (?, 0, ?, ?, ?, ?, ?, ?)";
+
+	private static final String INSERT_HISTORY_ITEM = "insert into history_item (id, version, order_id, new_state, message, timestamp, created_by_id) values (?, 0, ?, ?, ?, ?, ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final Dialect dialect;
+	private final OrderRepository orderRepository;
+	private final UserRepository userRepository;
+	private final ProductRepository productRepository;
+	private final PickupLocationRepository pickupLocationRepository;
+	private final OrderRollupService rollupService;
+	private final CustomerNameIndex customerNameIndex;
+
+	private final int orders;
+	private final int productCount;
+	private final int pickupLocationCount;
+	private final int years;
+	private final long seed;
+	private final int parallelism;
+
+	@Autowired
+	public BenchmarkDataGenerator(DataSource dataSource, PlatformTransactionManager transactionManager,
+			EntityManagerFactory entityManagerFactory, OrderRepository orderRepository, UserRepository userRepository,
+			ProductRepository productRepository, PickupLocationRepository pickupLocationRepository,
+			OrderRollupService rollupService, CustomerNameIndex customerNameIndex,
+			@Value("${bakery.benchmark-data.orders:1000000}") int orders,
+			@Value("${bakery.benchmark-data.products:100}") int productCount,
+			@Value("${bakery.benchmark-data.pickup-locations:20}") int pickupLocationCount,
+			@Value("${bakery.benchmark-data.years:3}") int years,
+			@Value("${bakery.benchmark-data.seed:1}") long seed,
+			@Value("${bakery.benchmark-data.parallelism:4}") int parallelism) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+		this.orderRepository = orderRepository;
+		this.userRepository = userRepository;
+		this.productRepository = productRepository;
+		this.pickupLocationRepository = pickupLocationRepository;
+		this.rollupService = rollupService;
+		this.customerNameIndex = customerNameIndex;
+		this.orders = orders;
+		this.productCount = productCount;
+		this.pickupLocationCount = pickupLocationCount;
+		this.years = years;
+		this.seed = seed;
+		this.parallelism = parallelism;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (orderRepository.count() >= orders) {
+			getLogger().info("Using existing benchmark data");
+			return;
+		}
+		generate(orders);
+	}
+
+	/**
+	 * Generates the given number of orders. Must not run concurrently with other
+	 * order inserts, as it reserves the id ranges for its rows up front.
+	 */
+	public void generate(int orderCount) {
+		long start = System.currentTimeMillis();
+		getLogger().info("Generating {} benchmark orders", orderCount);
+
+		User barista = findUser("barista@vaadin.com");
+		User baker = findUser("baker@vaadin.com");
+		SplittableRandom root = new SplittableRandom(seed);
+		List<Product> products = createProducts(root.split());
+		List<PickupLocation> pickupLocations = createPickupLocations();
+
+		IdRange customerIds = reserve("customer_seq", orderCount);
+		IdRange orderIds = reserve("order_info_seq", orderCount);
+		IdRange itemIds = reserve("order_item_seq", (long) orderCount * MAX_ITEMS_PER_ORDER);
+		IdRange historyIds = reserve("history_item_seq", (long) orderCount * MAX_HISTORY_PER_ORDER);
+
+		LocalDate today = LocalDate.now();
+		LocalDate first = LocalDate.of(today.getYear() - years, 1, 1);
+		int days = (int) ChronoUnit.DAYS.between(first, today.plusMonths(1));
+		int partitionCount = (days + PARTITION_DAYS - 1) / PARTITION_DAYS;
+		List<Partition> partitions = new ArrayList<>(partitionCount);
+		for (int i = 0; i < partitionCount; i++) {
+			Partition partition = new Partition();
+			partition.firstDay = first.plusDays((long) i * PARTITION_DAYS);
+			partition.days = Math.min(PARTITION_DAYS, days - i * PARTITION_DAYS);
+			partition.firstOrder = (int) ((long) orderCount * i / partitionCount);
+			partition.lastOrder = (int) ((long) orderCount * (i + 1) / partitionCount);
+			partition.random = root.split();
+			partitions.add(partition);
+		}
+
+		Generator generator = new Generator(today, products, pickupLocations, barista, baker, customerIds, orderIds,
+				itemIds, historyIds);
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.submit(() -> partitions.parallelStream().forEach(generator::write)).join();
+		} finally {
+			pool.shutdown();
+		}
+
+		restart("customer_seq", customerIds);
+		restart("order_info_seq", orderIds);
+		restart("order_item_seq", itemIds);
+		restart("history_item_seq", historyIds);
+		rollupService.invalidate();
+		customerNameIndex.invalidate();
+
+		getLogger().info("Generated {} benchmark orders in {} ms", orderCount, System.currentTimeMillis() - start);
+	}
+
+	private User findUser(String email) {
+		User user = userRepository.findByEmailIgnoreCase(email);
+		if (user == null) {
+			throw new IllegalStateException("Benchmark data needs the demo user " + email);
+		}
+		return user;
+	}
+
+	private List<Product> createProducts(SplittableRandom random) {
+		List<Product> products = new ArrayList<>();
+		for (int i = 1; i <= productCount; i++) {
+			String name = DataGenerator.FILLING[i % DataGenerator.FILLING.length] + " "
+					+ DataGenerator.TYPE[i % DataGenerator.TYPE.length] + " No. " + i;
+			// Draw the price even for existing products to keep the sequence stable
+			int price = 200 + random.nextInt(10000);
+			Product product = productRepository.findByName(name).orElseGet(() -> {
+				Product created = new Product();
+				created.setName(name);
+				created.setPrice(price);
+				return productRepository.save(created);
+			});
+			products.add(product);
+		}
+		return products;
+	}
+
+	private List<PickupLocation> createPickupLocations() {
+		List<PickupLocation> pickupLocations = new ArrayList<>();
+		for (int i = 1; i <= pickupLocationCount; i++) {
+			String name = "Store " + i;
+			pickupLocations.add(pickupLocationRepository.findByName(name).orElseGet(() -> {
+				PickupLocation created = new PickupLocation();
+				created.setName(name);
+				return pickupLocationRepository.save(created);
+			}));
+		}
+		return pickupLocations;
+	}
+
+	/**
+	 * Reserves ids beyond anything the sequence has handed out so far, including
+	 * the blocks that Hibernate's pooled optimizer may still be using.
+	 */
+	private IdRange reserve(String sequence, long size) {
+		Long current = jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(sequence),
+				Long.class);
+		return new IdRange(current + 1, size);
+	}
+
+	private void restart(String sequence, IdRange range) {
+		// The pooled optimizer treats the sequence value as the upper end of the
+		// next block of ids
+		jdbcTemplate.execute(
+				"alter sequence " + sequence + " restart with " + (range.first + range.size + SEQUENCE_INCREMENT));
+	}
+
+	private static final class IdRange {
+
+		private final long first;
+
+		private final long size;
+
+		private IdRange(long first, long size) {
+			this.first = first;
+			this.size = size;
+		}
+	}
+
+	private static final class Partition {
+
+		private LocalDate firstDay;
+
+		private int days;
+
+		private int firstOrder;
+
+		private int lastOrder;
+
+		private SplittableRandom random;
+	}
+
+	private final class Generator {
+
+		private final LocalDate today;
+		private final List<Product> products;
+		private final List<PickupLocation> pickupLocations;
+		private final User barista;
+		private final User baker;
+		private final IdRange customerIds;
+		private final IdRange orderIds;
+		private final IdRange itemIds;
+		private final IdRange historyIds;
+
+		private Generator(LocalDate today, List<Product> products, List<PickupLocation> pickupLocations,
+				User barista, User baker, IdRange customerIds, IdRange orderIds, IdRange itemIds,
+				IdRange historyIds) {
+			this.today = today;
+			this.products = products;
+			this.pickupLocations = pickupLocations;
+			this.barista = barista;
+			this.baker = baker;
+			this.customerIds = customerIds;
+			this.orderIds = orderIds;
+			this.itemIds = itemIds;
+			this.historyIds = historyIds;
+		}
+
+		private void write(Partition partition) {
+			Rows rows = new Rows();
+			SplittableRandom random = partition.random;
+			for (int index = partition.firstOrder; index < partition.lastOrder; index++) {
+				createOrder(rows, random, index, partition.firstDay.plusDays(random.nextInt(partition.days)));
+			}
+			transactionTemplate.executeWithoutResult(status -> {
+				jdbcTemplate.batchUpdate(INSERT_CUSTOMER, rows.customers);
+				jdbcTemplate.batchUpdate(INSERT_ORDER, rows.orders);
+				jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM, rows.items);
+				jdbcTemplate.batchUpdate(INSERT_HISTORY_ITEM, rows.history);
+			});
+		}
+
+		private void createOrder(Rows rows, SplittableRandom random, int index, LocalDate dueDate) {
+			long customerId = customerIds.first + index;
+			long orderId = orderIds.first + index;
+			LocalTime dueTime = LocalTime.of(8 + 4 * random.nextInt(3), 0);
+			OrderState state = getRandomState(random, dueDate);
+
+			String fullName = DataGenerator.FIRST_NAME[random.nextInt(DataGenerator.FIRST_NAME.length)] + " "
+					+ DataGenerator.LAST_NAME[random.nextInt(DataGenerator.LAST_NAME.length)];
+			String phoneNumber = "+1-555-" + String.format("%04d", random.nextInt(10000));
+			String details = random.nextInt(10) == 0 ? "Very important customer" : null;
+			rows.customers.add(new Object[] { customerId, fullName, phoneNumber, details });
+
+			int itemCount = 1 + random.nextInt(MAX_ITEMS_PER_ORDER);
+			int firstProduct = random.nextInt(products.size());
+			int totalPrice = 0;
+			for (int i = 0; i < itemCount; i++) {
+				// Consecutive products keep the items of an order distinct
+				Product product = products.get((firstProduct + i) % products.size());
+				int quantity = 1 + random.nextInt(10);
+				String comment = null;
+				if (random.nextInt(5) == 0) {
+					comment = random.nextBoolean() ? "Lactose free" : "Gluten free";
+				}
+				totalPrice += quantity * product.getPrice();
+				rows.items.add(new Object[] { itemIds.first + (long) index * MAX_ITEMS_PER_ORDER + i, orderId, i,
+						product.getId(), quantity, product.getPrice(), comment });
+			}
+
+			PickupLocation pickupLocation = pickupLocations.get(random.nextInt(pickupLocations.size()));
+			rows.orders.add(new Object[] { orderId, dueDate, dueTime, state.ordinal(), totalPrice, customerId,
+					pickupLocation.getId() });
+
+			createHistory(rows, random, index, orderId, dueDate, dueTime, state);
+		}
+
+		private void createHistory(Rows rows, SplittableRandom random, int index, long orderId, LocalDate dueDate,
+				LocalTime dueTime, OrderState state) {
+			List<Object[]> history = new ArrayList<>(MAX_HISTORY_PER_ORDER);
+			LocalDateTime placed = dueDate.minusDays(random.nextInt(5) + 2L).atTime(random.nextInt(10) + 7, 0);
+			history.add(historyItem(OrderState.NEW, "Order placed", placed, barista));
+			if (state == OrderState.CANCELLED) {
+				history.add(historyItem(OrderState.CANCELLED, "Order cancelled",
+						placed.plusDays(random.nextInt((int) placed.until(dueDate.atTime(dueTime), ChronoUnit.DAYS))),
+						barista));
+			} else if (state != OrderState.NEW) {
+				history.add(historyItem(OrderState.CONFIRMED, "Order confirmed",
+						placed.plusDays(random.nextInt(2)).plusHours(random.nextInt(5)), baker));
+				if (state == OrderState.PROBLEM) {
+					history.add(historyItem(OrderState.PROBLEM,
+							"Can't make it. Did not get any ingredients this morning",
+							dueDate.atTime(random.nextInt(4) + 4, 0), baker));
+				} else if (state == OrderState.READY || state == OrderState.DELIVERED) {
+					history.add(historyItem(OrderState.READY, "Order ready for pickup",
+							dueDate.atTime(random.nextInt(2) + 8, random.nextBoolean() ? 0 : 30), baker));
+					if (state == OrderState.DELIVERED) {
+						history.add(historyItem(OrderState.DELIVERED, "Order delivered",
+								dueDate.atTime(dueTime.minusMinutes(random.nextInt(120))), baker));
+					}
+				}
+			}
+			for (int i = 0; i < history.size(); i++) {
+				Object[] row = history.get(i);
+				row[0] = historyIds.first + (long) index * MAX_HISTORY_PER_ORDER + i;
+				row[1] = orderId;
+				rows.history.add(row);
+			}
+		}
+
+		private Object[] historyItem(OrderState newState, String message, LocalDateTime timestamp, User createdBy) {
+			return new Object[] { null, null, newState.ordinal(), message, Timestamp.valueOf(timestamp),
+					createdBy.getId() };
+		}
+
+		private OrderState getRandomState(SplittableRandom random, LocalDate dueDate) {
+			double resolution = random.nextDouble();
+			if (dueDate.isBefore(today)) {
+				return resolution < 0.9 ? OrderState.DELIVERED : OrderState.CANCELLED;
+			} else if (dueDate.isAfter(today.plusDays(2))) {
+				return OrderState.NEW;
+			} else if (dueDate.isAfter(today.plusDays(1))) {
+				return resolution < 0.8 ? OrderState.NEW : resolution < 0.9 ? OrderState.PROBLEM : OrderState.CANCELLED;
+			} else {
+				return resolution < 0.6 ? OrderState.READY
+						: resolution < 0.8 ? OrderState.DELIVERED
+								: resolution < 0.9 ? OrderState.PROBLEM : OrderState.CANCELLED;
+			}
+		}
+	}
+
+	private static final class Rows {
+
+		private final List<Object[]> customers = new ArrayList<>();
+
+		private final List<Object[]> orders = new ArrayList<>();
+
+		private final List<Object[]> items = new ArrayList<>();
+
+		private final List<Object[]> history = new ArrayList<>();
+	}
+}
@@ -0,0 +1,78 @@
+package com.vaadin.starter.bakery.app;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Actuator endpoint ({@code /actuator/cacheregions}) listing the hits, misses
+ * and hit ratio of every Hibernate second-level and query cache region.
+ */
+@Component
+@Endpoint(id = "cacheregions")
+public class CacheRegionsEndpoint {
+
+	private final Statistics statistics;
+
+	@Autowired
+	public CacheRegionsEndpoint(EntityManagerFactory entityManagerFactory) {
+		this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@ReadOperation
+	public Map<String, RegionStatistics> regions() {
+		Map<String, RegionStatistics> regions = new TreeMap<>();
+		for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+			CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+			if (region != null) {
+				regions.put(regionName, new RegionStatistics(region));
+			}
+		}
+		return regions;
+	}
+
+	public static class RegionStatistics {
+
+		private final long hitCount;
+
+		private final long missCount;
+
+		private final long putCount;
+
+		RegionStatistics(CacheRegionStatistics region) {
+			this.hitCount = region.getHitCount();
+			this.missCount = region.getMissCount();
+			this.putCount = region.getPutCount();
+		}
+
+		public long getHitCount() {
+			return hitCount;
+		}
+
+		public long getMissCount() {
+			return missCount;
+		}
+
+		public long getPutCount() {
+			return putCount;
+		}
+
+		/**
+		 * Returns the share of lookups that were served from the cache, or 0 if the
+		 * region has not been read yet.
+		 */
+		public double getHitRatio() {
+			long requests = hitCount + missCount;
+			return requests == 0 ? 0 : (double) hitCount / requests;
+		}
+	}
+}
@@ -13,6 +13,7 @@ import java.util.function.Supplier;
 import jakarta.annotation.PostConstruct;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.vaadin.flow.spring.annotation.SpringComponent;
@@ -33,20 +34,28 @@ import com.vaadin.starter.bakery.backend.repositories.UserRepository;
 @SpringComponent
 public class DataGenerator implements HasLogger {
 
-	private static final String[] FILLING = new String[] { "Strawberry", "Chocolate", "Blueberry", "Raspberry",
+	static final String[] FILLING = new String[] { "Strawberry", "Chocolate", "Blueberry", "Raspberry",
 			"Vanilla" };
-	private static final String[] TYPE = new String[] { "Cake", "Pastry", "Tart", "Muffin", "Biscuit", "Bread", "Bagel",
+	static final String[] TYPE = new String[] { "Cake", "Pastry", "Tart", "Muffin", "Biscuit", "Bread", "Bagel",
 			"Bun", "Brownie", "Cookie", "Cracker", "Cheese Cake" };
-	private static final String[] FIRST_NAME = new String[] { "Ori", "Amanda", "Octavia", "Laurel", "Lael", "Delilah",
+	static final String[] FIRST_NAME = new String[] { "Ori", "Amanda", "Octavia", "Laurel", "Lael", "Delilah",
 			"Jason", "Skyler", "Arsenio", "Haley", "Lionel", "Sylvia", "Jessica", "Lester", "Ferdinand", "Elaine",
 			"Griffin", "Kerry", "Dominique" };
-	private static final String[] LAST_NAME = new String[] { "Carter", "Castro", "Rich", "Irwin", "Moore", "Hendricks",
+	static final String[] LAST_NAME = new String[] { "Carter", "Castro", "Rich", "Irwin", "Moore", "Hendricks",
 			"Huber", "Patton", "Wilkinson", "Thornton", "Nunez", "Macias", "Gallegos", "Blevins", "Mejia", "Pickett",
 			"Whitney", "Farmer", "Henry", "Chen", "Macias", "Rowland", "Pierce", "Cortez", "Noble", "Howard", "Nixon",
 			"Mcbride", "Leblanc", "Russell", "Carver", "Benton", "Maldonado", "Lyons" };
 
+	/**
+	 * Orders are saved in chunks of this size, so that Hibernate can batch the
+	 * inserts of one chunk and the persistence context stays small.
+	 */
+	private static final int ORDER_CHUNK_SIZE = 1000;
+
 	private final Random random = new Random(1L);
 
+	private final int scale;
+
 	private OrderRepository orderRepository;
 	private UserRepository userRepository;
 	private ProductRepository productRepository;
@@ -56,7 +65,8 @@ public class DataGenerator implements HasLogger {
 	@Autowired
 	public DataGenerator(OrderRepository orderRepository, UserRepository userRepository,
 			ProductRepository productRepository, PickupLocationRepository pickupLocationRepository,
-			PasswordEncoder passwordEncoder) {
+			PasswordEncoder passwordEncoder, @Value("${bakery.data-generator.scale:1}") int scale) {
+		this.scale = scale;
 		this.orderRepository = orderRepository;
 		this.userRepository = userRepository;
 		this.productRepository = productRepository;
@@ -89,8 +99,10 @@ public class DataGenerator implements HasLogger {
 		getLogger().info("... generating pickup locations");
 		Supplier<PickupLocation> pickupLocationSupplier = createPickupLocations(pickupLocationRepository);
 
-		getLogger().info("... generating orders");
-		createOrders(orderRepository, productSupplier, pickupLocationSupplier, barista, baker);
+		getLogger().info("... generating orders" + (scale == 1 ? "" : " (" + scale + "x)"));
+		long start = System.currentTimeMillis();
+		int orders = createOrders(orderRepository, productSupplier, pickupLocationSupplier, barista, baker);
+		getLogger().info("... generated {} orders in {} ms", orders, System.currentTimeMillis() - start);
 
 		getLogger().info("Generated demo data");
 	}
@@ -109,7 +121,7 @@ public class DataGenerator implements HasLogger {
 		return "+1-555-" + String.format("%04d", random.nextInt(10000));
 	}
 
-	private void createOrders(OrderRepository orderRepo, Supplier<Product> productSupplier,
+	private int createOrders(OrderRepository orderRepo, Supplier<Product> productSupplier,
 			Supplier<PickupLocation> pickupLocationSupplier, User barista, User baker) {
 		int yearsToInclude = 2;
 		LocalDate now = LocalDate.now();
@@ -121,7 +133,9 @@ public class DataGenerator implements HasLogger {
 		order.setDueTime(LocalTime.of(8, 0));
 		order.setHistory(order.getHistory().subList(0, 1));
 		order.setItems(order.getItems().subList(0, 1));
-		orderRepo.save(order);
+		List<Order> chunk = new ArrayList<>(ORDER_CHUNK_SIZE);
+		chunk.add(order);
+		int count = 0;
 
 		for (LocalDate dueDate = oldestDate; dueDate.isBefore(newestDate); dueDate = dueDate.plusDays(1)) {
 			// Create a slightly upwards trend - everybody wants to be
@@ -129,11 +143,22 @@ public class DataGenerator implements HasLogger {
 			int relativeYear = dueDate.getYear() - now.getYear() + yearsToInclude;
 			int relativeMonth = relativeYear * 12 + dueDate.getMonthValue();
 			double multiplier = 1.0 + 0.03 * relativeMonth;
-			int ordersThisDay = (int) (random.nextInt(10) + 1 * multiplier);
+			int ordersThisDay = (int) (random.nextInt(10) + 1 * multiplier) * scale;
 			for (int i = 0; i < ordersThisDay; i++) {
-				orderRepo.save(createOrder(productSupplier, pickupLocationSupplier, barista, baker, dueDate));
+				chunk.add(createOrder(productSupplier, pickupLocationSupplier, barista, baker, dueDate));
+				if (chunk.size() == ORDER_CHUNK_SIZE) {
+					count += saveChunk(orderRepo, chunk);
+				}
 			}
 		}
+		return count + saveChunk(orderRepo, chunk);
+	}
+
+	private int saveChunk(OrderRepository orderRepo, List<Order> chunk) {
+		int size = chunk.size();
+		orderRepo.saveAll(chunk);
+		chunk.clear();
+		return size;
 	}
 
 	private Order createOrder(Supplier<Product> productSupplier, Supplier<PickupLocation> pickupLocationSupplier,
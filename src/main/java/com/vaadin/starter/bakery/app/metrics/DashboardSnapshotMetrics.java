@@ -0,0 +1,46 @@
+package com.vaadin.starter.bakery.app.metrics;
+
+import java.time.YearMonth;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.vaadin.starter.bakery.backend.service.DashboardSnapshotService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes how well the shared dashboard snapshot works:
+ * <ul>
+ * <li>{@code bakery.dashboard.snapshot.requests}: snapshot requests, tagged
+ * {@code result} {@code hit} when the current snapshot was reused and
+ * {@code miss} when it had to be refreshed,</li>
+ * <li>{@code bakery.dashboard.snapshot.age}: age in seconds of the snapshot of
+ * the current month, or NaN before there is one.</li>
+ * </ul>
+ */
+@Component
+public class DashboardSnapshotMetrics implements MeterBinder {
+
+	private final DashboardSnapshotService snapshotService;
+
+	@Autowired
+	public DashboardSnapshotMetrics(DashboardSnapshotService snapshotService) {
+		this.snapshotService = snapshotService;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("bakery.dashboard.snapshot.requests", snapshotService,
+				DashboardSnapshotService::getHitCount).tag("result", "hit").register(registry);
+		FunctionCounter.builder("bakery.dashboard.snapshot.requests", snapshotService,
+				DashboardSnapshotService::getMissCount).tag("result", "miss").register(registry);
+		Gauge.builder("bakery.dashboard.snapshot.age", snapshotService,
+				service -> service.getSnapshotAge(YearMonth.now()).map(age -> age.toMillis() / 1000.0)
+						.orElse(Double.NaN))
+				.baseUnit("seconds").register(registry);
+	}
+}
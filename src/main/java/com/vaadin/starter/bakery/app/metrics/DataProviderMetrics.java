@@ -0,0 +1,60 @@
+package com.vaadin.starter.bakery.app.metrics;
+
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times the backend calls of data providers, which are not Spring beans and
+ * therefore use the global registry:
+ * <ul>
+ * <li>{@code bakery.dataprovider.fetch}: time to fetch a page,</li>
+ * <li>{@code bakery.dataprovider.rows}: number of rows fetched,</li>
+ * <li>{@code bakery.dataprovider.size}: time to count the rows.</li>
+ * </ul>
+ * The tags name the provider and describe the query, see {@link QueryTags}. Like
+ * Micrometer's {@code TimedAspect}, the timers are also tagged with the simple
+ * class name of the exception the call threw, or {@code none}.
+ */
+public final class DataProviderMetrics {
+
+	private DataProviderMetrics() {
+		// Static methods and fields only
+	}
+
+	public static Tags tags(Class<?> provider, Class<?> service, Tags queryTags) {
+		return queryTags.and("provider", provider.getSimpleName(), "service", service.getSimpleName());
+	}
+
+	public static <R> R fetch(Tags tags, Supplier<R> fetch, ToIntFunction<R> rowCount) {
+		Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+		String exception = "none";
+		try {
+			R result = fetch.get();
+			Metrics.counter("bakery.dataprovider.rows", tags).increment(rowCount.applyAsInt(result));
+			return result;
+		} catch (RuntimeException | Error e) {
+			exception = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			sample.stop(Metrics.timer("bakery.dataprovider.fetch", tags.and("exception", exception)));
+		}
+	}
+
+	public static int size(Tags tags, IntSupplier size) {
+		Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+		String exception = "none";
+		try {
+			return size.getAsInt();
+		} catch (RuntimeException | Error e) {
+			exception = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			sample.stop(Metrics.timer("bakery.dataprovider.size", tags.and("exception", exception)));
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.vaadin.starter.bakery.app.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.HibernateException;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.JdbcSettings;
+import org.hibernate.cfg.SessionEventSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers the Hibernate listeners that fill the {@link RequestStatistics} of
+ * the current request: a statement inspector counting the prepared SQL
+ * statements, a session listener timing their execution, and event listeners
+ * counting loaded entities and lazily fetched collections.
+ */
+@Component
+public class HibernateRequestStatistics implements HibernatePropertiesCustomizer {
+
+	@Override
+	public void customize(Map<String, Object> hibernateProperties) {
+		hibernateProperties.put(JdbcSettings.STATEMENT_INSPECTOR, new StatementCounter());
+		hibernateProperties.put(SessionEventSettings.AUTO_SESSION_EVENTS_LISTENER,
+				ExecutionTimeListener.class.getName());
+		hibernateProperties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+				(IntegratorProvider) () -> List.of(new LoadListenerIntegrator()));
+	}
+
+	private static class StatementCounter implements StatementInspector {
+
+		@Override
+		public String inspect(String sql) {
+			RequestStatistics statistics = RequestStatistics.current();
+			if (statistics != null) {
+				statistics.statementPrepared(sql);
+			}
+			return sql;
+		}
+	}
+
+	/**
+	 * Created by Hibernate for every session, see
+	 * {@link SessionEventSettings#AUTO_SESSION_EVENTS_LISTENER}.
+	 */
+	public static class ExecutionTimeListener extends BaseSessionEventListener {
+
+		private long executionStart;
+
+		@Override
+		public void jdbcExecuteStatementStart() {
+			executionStart = System.nanoTime();
+		}
+
+		@Override
+		public void jdbcExecuteStatementEnd() {
+			executed();
+		}
+
+		@Override
+		public void jdbcExecuteBatchStart() {
+			executionStart = System.nanoTime();
+		}
+
+		@Override
+		public void jdbcExecuteBatchEnd() {
+			executed();
+		}
+
+		private void executed() {
+			RequestStatistics statistics = RequestStatistics.current();
+			if (statistics != null) {
+				statistics.statementExecuted(System.nanoTime() - executionStart);
+			}
+		}
+	}
+
+	private static class LoadListener implements PostLoadEventListener, InitializeCollectionEventListener {
+
+		@Override
+		public void onPostLoad(PostLoadEvent event) {
+			RequestStatistics statistics = RequestStatistics.current();
+			if (statistics != null) {
+				statistics.entityLoaded();
+			}
+		}
+
+		@Override
+		public void onInitializeCollection(InitializeCollectionEvent event) throws HibernateException {
+			RequestStatistics statistics = RequestStatistics.current();
+			if (statistics != null) {
+				statistics.collectionFetched();
+			}
+		}
+	}
+
+	private static class LoadListenerIntegrator implements Integrator {
+
+		@Override
+		public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+				SessionFactoryImplementor sessionFactory) {
+			LoadListener listener = new LoadListener();
+			EventListenerRegistry registry = sessionFactory.getServiceRegistry()
+					.getService(EventListenerRegistry.class);
+			registry.appendListeners(EventType.POST_LOAD, listener);
+			registry.appendListeners(EventType.INIT_COLLECTION, listener);
+		}
+
+		@Override
+		public void disintegrate(SessionFactoryImplementor sessionFactory,
+				SessionFactoryServiceRegistry serviceRegistry) {
+			// Nothing to release
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package com.vaadin.starter.bakery.app.metrics;
+
+import java.util.function.Function;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+
+/**
+ * Enables {@code @Timed} on Spring beans. The timers are tagged with the class,
+ * the method and the {@link QueryTags} of the invocation.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+		Function<ProceedingJoinPoint, Iterable<Tag>> tags = QueryTags::of;
+		return new TimedAspect(meterRegistry, tags);
+	}
+}
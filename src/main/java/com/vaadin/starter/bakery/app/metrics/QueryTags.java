@@ -0,0 +1,83 @@
+package com.vaadin.starter.bakery.app.metrics;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * The tags describing a query in the timers of services and data providers:
+ * {@code filter} tells whether the query is filtered by text, by date, by both
+ * or not at all, and {@code page.size} is the number of rows requested, or
+ * {@code none} for queries that are not paged. Page sizes are rounded up to a
+ * power of two, as the storefront grid requests varying numbers of rows when it
+ * continues from a keyset position.
+ */
+public final class QueryTags {
+
+	public static final String FILTER = "filter";
+
+	public static final String PAGE_SIZE = "page.size";
+
+	private static final String NONE = "none";
+
+	private QueryTags() {
+		// Static methods and fields only
+	}
+
+	public static Tags of(boolean textFilter, boolean dateFilter, int pageSize) {
+		return Tags.of(FILTER, filterType(textFilter, dateFilter), PAGE_SIZE, pageSize(pageSize));
+	}
+
+	public static Tags of(boolean textFilter, boolean dateFilter) {
+		return Tags.of(FILTER, filterType(textFilter, dateFilter), PAGE_SIZE, NONE);
+	}
+
+	/**
+	 * Tags an invocation of a {@code @Timed} service method with its class and
+	 * method, and with the query tags derived from its arguments: a present
+	 * {@code Optional<String>} is a text filter, a present
+	 * {@code Optional<LocalDate>} a date filter, and a {@link Pageable} or
+	 * {@link Limit} gives the page size.
+	 */
+	static Iterable<Tag> of(ProceedingJoinPoint joinPoint) {
+		boolean textFilter = false;
+		boolean dateFilter = false;
+		String pageSize = NONE;
+		for (Object arg : joinPoint.getArgs()) {
+			if (arg instanceof Optional<?> optional && optional.isPresent()) {
+				Object value = optional.get();
+				textFilter |= value instanceof String text && !text.isEmpty();
+				dateFilter |= value instanceof LocalDate;
+			} else if (arg instanceof Pageable pageable && pageable.isPaged()) {
+				pageSize = pageSize(pageable.getPageSize());
+			} else if (arg instanceof Limit limit && limit.isLimited()) {
+				pageSize = pageSize(limit.max());
+			}
+		}
+		Signature signature = joinPoint.getStaticPart().getSignature();
+		return Tags.of("class", signature.getDeclaringTypeName(), "method", signature.getName(), FILTER,
+				filterType(textFilter, dateFilter), PAGE_SIZE, pageSize);
+	}
+
+	private static String pageSize(int pageSize) {
+		return pageSize <= 1 ? "1" : String.valueOf(Integer.highestOneBit(pageSize - 1) << 1);
+	}
+
+	private static String filterType(boolean textFilter, boolean dateFilter) {
+		if (textFilter && dateFilter) {
+			return "both";
+		} else if (textFilter) {
+			return "text";
+		} else if (dateFilter) {
+			return "date";
+		}
+		return NONE;
+	}
+}
@@ -0,0 +1,121 @@
+package com.vaadin.starter.bakery.app.metrics;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+
+/**
+ * The database work done while handling one Vaadin request: SQL statements,
+ * their execution time and the entities and collections Hibernate loaded.
+ * <p>
+ * {@link VaadinRequestStatistics} starts and ends the statistics of each
+ * request on the request thread, and the listeners of
+ * {@link HibernateRequestStatistics} add to them. Work done on other threads,
+ * such as background tasks and pushes, is not counted.
+ */
+public class RequestStatistics {
+
+	static final String VIEW_DATA_KEY = RequestStatistics.class.getName() + ".view";
+
+	private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+	private final Map<String, Integer> statementCounts = new HashMap<>();
+
+	private String view;
+
+	private int statements;
+
+	private long executionNanos;
+
+	private int entityLoads;
+
+	private int collectionFetches;
+
+	static void start() {
+		CURRENT.set(new RequestStatistics());
+	}
+
+	/**
+	 * Returns the statistics of the request handled by the current thread, or
+	 * {@code null} if the thread is not handling a request.
+	 */
+	static RequestStatistics current() {
+		return CURRENT.get();
+	}
+
+	static RequestStatistics end() {
+		RequestStatistics statistics = CURRENT.get();
+		CURRENT.remove();
+		return statistics;
+	}
+
+	void statementPrepared(String sql) {
+		statements++;
+		statementCounts.merge(sql, 1, Integer::sum);
+		if (view == null) {
+			// Requests that do not navigate belong to the view the UI shows
+			UI ui = UI.getCurrent();
+			if (ui != null) {
+				view = (String) ComponentUtil.getData(ui, VIEW_DATA_KEY);
+			}
+		}
+	}
+
+	void statementExecuted(long nanos) {
+		executionNanos += nanos;
+	}
+
+	void entityLoaded() {
+		entityLoads++;
+	}
+
+	void collectionFetched() {
+		collectionFetches++;
+	}
+
+	void setView(String view) {
+		this.view = view;
+	}
+
+	/**
+	 * Returns the name of the view the request was made for, or {@code null} if
+	 * it is not known.
+	 */
+	public String getView() {
+		return view;
+	}
+
+	public int getStatements() {
+		return statements;
+	}
+
+	public long getExecutionNanos() {
+		return executionNanos;
+	}
+
+	public int getEntityLoads() {
+		return entityLoads;
+	}
+
+	public int getCollectionFetches() {
+		return collectionFetches;
+	}
+
+	/**
+	 * Returns the SQL statements that were prepared at least {@code threshold}
+	 * times, with their counts. A statement repeated for every row of a previous
+	 * result is the typical sign of an N+1 select.
+	 */
+	public Map<String, Integer> getRepeatedStatements(int threshold) {
+		Map<String, Integer> repeated = new LinkedHashMap<>();
+		statementCounts.forEach((sql, count) -> {
+			if (count >= threshold) {
+				repeated.put(sql, count);
+			}
+		});
+		return repeated;
+	}
+}
@@ -0,0 +1,118 @@
+package com.vaadin.starter.bakery.app.metrics;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.UIInitEvent;
+import com.vaadin.flow.server.UIInitListener;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinRequestInterceptor;
+import com.vaadin.flow.server.VaadinResponse;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.starter.bakery.app.HasLogger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Collects the {@link RequestStatistics} of every Vaadin request that uses the
+ * database and publishes them per view through Micrometer:
+ * <ul>
+ * <li>{@code bakery.request.sql.statements}: SQL statements per request,</li>
+ * <li>{@code bakery.request.sql.time}: their execution time per request,</li>
+ * <li>{@code bakery.request.entity.loads}: entities loaded per request,</li>
+ * <li>{@code bakery.request.collection.fetches}: lazy collections fetched per
+ * request,</li>
+ * <li>{@code bakery.request.n-plus-one}: statements repeated at least
+ * {@code bakery.metrics.n-plus-one-threshold} times within one request, which
+ * are also logged.</li>
+ * </ul>
+ * The view is the navigation target of the request, or the view the UI showed
+ * when the request did not navigate.
+ */
+@Component
+public class VaadinRequestStatistics
+		implements VaadinServiceInitListener, UIInitListener, VaadinRequestInterceptor, HasLogger {
+
+	private static final String UNKNOWN_VIEW = "none";
+
+	private final transient MeterRegistry meterRegistry;
+
+	private final int nPlusOneThreshold;
+
+	@Autowired
+	public VaadinRequestStatistics(MeterRegistry meterRegistry,
+			@Value("${bakery.metrics.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+		this.meterRegistry = meterRegistry;
+		this.nPlusOneThreshold = nPlusOneThreshold;
+	}
+
+	@Override
+	public void serviceInit(ServiceInitEvent event) {
+		event.addVaadinRequestInterceptor(this);
+		event.getSource().addUIInitListener(this);
+	}
+
+	@Override
+	public void uiInit(UIInitEvent event) {
+		UI ui = event.getUI();
+		ui.addBeforeEnterListener(e -> {
+			String view = e.getNavigationTarget().getSimpleName();
+			ComponentUtil.setData(ui, RequestStatistics.VIEW_DATA_KEY, view);
+			RequestStatistics statistics = RequestStatistics.current();
+			if (statistics != null) {
+				statistics.setView(view);
+			}
+		});
+	}
+
+	@Override
+	public void requestStart(VaadinRequest request, VaadinResponse response) {
+		RequestStatistics.start();
+	}
+
+	@Override
+	public void handleException(VaadinRequest request, VaadinResponse response, VaadinSession session,
+			Exception exception) {
+		// The statistics are published in requestEnd, which is called as well
+	}
+
+	@Override
+	public void requestEnd(VaadinRequest request, VaadinResponse response, VaadinSession session) {
+		RequestStatistics statistics = RequestStatistics.end();
+		if (statistics == null || (statistics.getStatements() == 0 && statistics.getView() == null)) {
+			return;
+		}
+		String view = statistics.getView() == null ? UNKNOWN_VIEW : statistics.getView();
+		DistributionSummary.builder("bakery.request.sql.statements").tag("view", view).register(meterRegistry)
+				.record(statistics.getStatements());
+		Timer.builder("bakery.request.sql.time").tag("view", view).register(meterRegistry)
+				.record(statistics.getExecutionNanos(), TimeUnit.NANOSECONDS);
+		DistributionSummary.builder("bakery.request.entity.loads").tag("view", view).register(meterRegistry)
+				.record(statistics.getEntityLoads());
+		DistributionSummary.builder("bakery.request.collection.fetches").tag("view", view).register(meterRegistry)
+				.record(statistics.getCollectionFetches());
+
+		Map<String, Integer> repeated = statistics.getRepeatedStatements(nPlusOneThreshold);
+		if (!repeated.isEmpty()) {
+			Counter.builder("bakery.request.n-plus-one").tag("view", view).register(meterRegistry)
+					.increment(repeated.size());
+			repeated.forEach((sql, count) -> getLogger().warn("Possible N+1 select in {}: {} times {}", view, count,
+					sql));
+		}
+		getLogger().debug("{} {}: {} statements in {} ms, {} entity loads, {} collection fetches", view,
+				request.getPathInfo(), statistics.getStatements(),
+				TimeUnit.NANOSECONDS.toMillis(statistics.getExecutionNanos()), statistics.getEntityLoads(),
+				statistics.getCollectionFetches());
+	}
+}
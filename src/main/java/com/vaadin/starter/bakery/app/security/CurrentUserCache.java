@@ -0,0 +1,79 @@
+package com.vaadin.starter.bakery.app.security;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.starter.bakery.backend.data.entity.User;
+import com.vaadin.starter.bakery.backend.repositories.UserRepository;
+import com.vaadin.starter.bakery.backend.service.UserChangedEvent;
+
+/**
+ * Keeps the logged in user in its {@link VaadinSession}, so that resolving the
+ * {@link CurrentUser} does not query the database on every injection. Each
+ * session has its own instance of the user, so changes made through one session
+ * are not seen by the others.
+ * <p>
+ * Users are looked up by the name they logged in with. Every cached user is
+ * reloaded after a user is saved or deleted, as that is rare and the changed
+ * user may have been cached under a different email address. Outside of a
+ * locked session, the user is always read from the database.
+ */
+@Component
+public class CurrentUserCache {
+
+	private final UserRepository userRepository;
+
+	// Incremented on every user change, making the users cached before stale
+	private final AtomicLong version = new AtomicLong();
+
+	@Autowired
+	public CurrentUserCache(UserRepository userRepository) {
+		this.userRepository = userRepository;
+	}
+
+	/**
+	 * Returns the user with the given login name, or {@code null} if there is no
+	 * such user.
+	 */
+	public User getUser(String username) {
+		if (username == null) {
+			return null;
+		}
+		VaadinSession session = VaadinSession.getCurrent();
+		if (session == null || !session.hasLock()) {
+			return userRepository.findByEmailIgnoreCase(username);
+		}
+		long currentVersion = version.get();
+		CachedUser cached = session.getAttribute(CachedUser.class);
+		if (cached == null || cached.version != currentVersion || !cached.username.equalsIgnoreCase(username)) {
+			cached = new CachedUser(username, currentVersion, userRepository.findByEmailIgnoreCase(username));
+			session.setAttribute(CachedUser.class, cached);
+		}
+		return cached.user;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		version.incrementAndGet();
+	}
+
+	private static final class CachedUser implements Serializable {
+
+		private final String username;
+
+		private final long version;
+
+		private final User user;
+
+		private CachedUser(String username, long version, User user) {
+			this.username = username;
+			this.version = version;
+			this.user = user;
+		}
+	}
+}
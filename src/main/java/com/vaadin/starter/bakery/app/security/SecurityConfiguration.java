@@ -1,23 +1,34 @@
 package com.vaadin.starter.bakery.app.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.annotation.Scope;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.SecurityFilterChain;
 
 import com.vaadin.flow.spring.security.VaadinWebSecurity;
+import com.vaadin.starter.bakery.backend.data.Role;
 import com.vaadin.starter.bakery.backend.data.entity.User;
-import com.vaadin.starter.bakery.backend.repositories.UserRepository;
 import com.vaadin.starter.bakery.ui.views.login.LoginView;
 
 /**
  * Configures spring security, doing the following:
  * <li>Bypass security checks for static resources,</li>
  * <li>Restrict access to the application, allowing only logged in users,</li>
+ * <li>Restrict the actuator endpoints to admins,</li>
+ * <li>Let the Prometheus scraper read {@code /actuator/prometheus} with HTTP
+ * basic authentication,</li>
  * <li>Set up the login form,</li>
  * <li>Configures the {@link UserDetailsServiceImpl}.</li>
  * 
@@ -29,17 +40,41 @@ public class SecurityConfiguration extends VaadinWebSecurity {
 
 	@Bean
 	@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
-	public CurrentUser currentUser(UserRepository userRepository) {
-		final String username = SecurityUtils.getUsername();
-		User user = username != null ? userRepository.findByEmailIgnoreCase(username) : null;
+	public CurrentUser currentUser(CurrentUserCache currentUserCache) {
+		User user = currentUserCache.getUser(SecurityUtils.getUsername());
 		return () -> user;
 	}	
 
+	/**
+	 * Authenticates the Prometheus scraper with HTTP basic as the user configured
+	 * by {@code bakery.metrics.scrape.username} and
+	 * {@code bakery.metrics.scrape.password}. The endpoint cannot be read as long
+	 * as no password is set.
+	 */
+	@Bean
+	@Order(1)
+	public SecurityFilterChain prometheusFilterChain(HttpSecurity http, PasswordEncoder passwordEncoder,
+			@Value("${bakery.metrics.scrape.username:prometheus}") String username,
+			@Value("${bakery.metrics.scrape.password:}") String password) throws Exception {
+		InMemoryUserDetailsManager scrapers = new InMemoryUserDetailsManager();
+		if (!password.isEmpty()) {
+			UserDetails scraper = org.springframework.security.core.userdetails.User.withUsername(username)
+					.password(passwordEncoder.encode(password)).roles(Role.METRICS).build();
+			scrapers.createUser(scraper);
+		}
+		return http.securityMatcher("/actuator/prometheus")
+				.authorizeHttpRequests(auth -> auth.anyRequest().hasRole(Role.METRICS))
+				.httpBasic(Customizer.withDefaults()).userDetailsService(scrapers)
+				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+				.csrf(csrf -> csrf.disable()).build();
+	}
+
 	/**
 	 * Require login to access internal pages and configure login form.
 	 */
 	@Override
 	protected void configure(HttpSecurity http) throws Exception {
+		http.authorizeHttpRequests(auth -> auth.requestMatchers("/actuator/**").hasRole(Role.ADMIN));
 		super.configure(http);
 		setLoginView(http, LoginView.class);
 	}
@@ -1,7 +1,7 @@
 package com.vaadin.starter.bakery.backend.data;
 
-import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.vaadin.starter.bakery.backend.data.entity.Product;
 
@@ -11,7 +11,7 @@ public class DashboardData {
 	private List<Number> deliveriesThisMonth;
 	private List<Number> deliveriesThisYear;
 	private Number[][] salesPerMonth;
-	private LinkedHashMap<Product, Integer> productDeliveries;
+	private Map<Product, Integer> productDeliveries;
 
 	public DeliveryStats getDeliveryStats() {
 		return deliveryStats;
@@ -42,14 +42,14 @@ public class DashboardData {
 	}
 
 	public Number[] getSalesPerMonth(int i) {
-		return salesPerMonth[i];
+		return salesPerMonth[i].clone();
 	}
 
-	public LinkedHashMap<Product, Integer> getProductDeliveries() {
+	public Map<Product, Integer> getProductDeliveries() {
 		return productDeliveries;
 	}
 
-	public void setProductDeliveries(LinkedHashMap<Product, Integer> productDeliveries) {
+	public void setProductDeliveries(Map<Product, Integer> productDeliveries) {
 		this.productDeliveries = productDeliveries;
 	}
 
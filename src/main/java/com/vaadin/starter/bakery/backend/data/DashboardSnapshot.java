@@ -0,0 +1,78 @@
+package com.vaadin.starter.bakery.backend.data;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+
+/**
+ * Everything the dashboard shows for a given month, computed once and shared
+ * between all dashboard instances. Instances are never modified after creation.
+ */
+public class DashboardSnapshot {
+
+	private final YearMonth month;
+	private final DashboardData data;
+	private final LocalDateTime nextDelivery;
+	private final LocalTime firstDeliveryTomorrow;
+	private final LocalDateTime lastOrderPlaced;
+	private final Instant createdAt;
+	private final long generation;
+
+	public DashboardSnapshot(YearMonth month, DashboardData data, LocalDateTime nextDelivery,
+			LocalTime firstDeliveryTomorrow, LocalDateTime lastOrderPlaced, long generation) {
+		this.month = month;
+		this.data = data;
+		this.nextDelivery = nextDelivery;
+		this.firstDeliveryTomorrow = firstDeliveryTomorrow;
+		this.lastOrderPlaced = lastOrderPlaced;
+		this.generation = generation;
+		this.createdAt = Instant.now();
+	}
+
+	public YearMonth getMonth() {
+		return month;
+	}
+
+	public DashboardData getData() {
+		return data;
+	}
+
+	/**
+	 * Returns the due date and time of the next order ready for pickup, or
+	 * {@code null} if there is none.
+	 */
+	public LocalDateTime getNextDelivery() {
+		return nextDelivery;
+	}
+
+	/**
+	 * Returns the earliest due time of the orders due tomorrow, or {@code null} if
+	 * there are none.
+	 */
+	public LocalTime getFirstDeliveryTomorrow() {
+		return firstDeliveryTomorrow;
+	}
+
+	/**
+	 * Returns when the most recent order due today or later was placed, or
+	 * {@code null} if there are no such orders.
+	 */
+	public LocalDateTime getLastOrderPlaced() {
+		return lastOrderPlaced;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	public long getGeneration() {
+		return generation;
+	}
+
+	public Duration getAge() {
+		return Duration.between(createdAt, Instant.now());
+	}
+
+}
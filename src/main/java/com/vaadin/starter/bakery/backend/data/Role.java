@@ -5,6 +5,8 @@ public class Role {
 	public static final String BAKER = "baker";
 	// This role implicitly allows access to all views.
 	public static final String ADMIN = "admin";
+	// Only given to the Prometheus scraper, never to users.
+	public static final String METRICS = "metrics";
 
 	private Role() {
 		// Static methods and fields only
@@ -3,7 +3,11 @@ package com.vaadin.starter.bakery.backend.data.entity;
 import java.time.LocalDateTime;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -11,8 +15,13 @@ import jakarta.validation.constraints.Size;
 import com.vaadin.starter.bakery.backend.data.OrderState;
 
 @Entity
+@Table(indexes = @Index(columnList = "order_id, timestamp"))
 public class HistoryItem extends AbstractEntity {
 
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "order_id")
+	private Order order;
+
 	private OrderState newState;
 
 	@NotBlank
@@ -59,6 +68,14 @@ public class HistoryItem extends AbstractEntity {
 		this.timestamp = timestamp;
 	}
 
+	public Order getOrder() {
+		return order;
+	}
+
+	public void setOrder(Order order) {
+		this.order = order;
+	}
+
 	public User getCreatedBy() {
 		return createdBy;
 	}
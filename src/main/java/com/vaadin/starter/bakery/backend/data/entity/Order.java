@@ -3,7 +3,6 @@ package com.vaadin.starter.bakery.backend.data.entity;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 import jakarta.persistence.CascadeType;
@@ -17,8 +16,12 @@ import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.NamedEntityGraphs;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.OrderColumn;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -34,10 +37,9 @@ import com.vaadin.starter.bakery.backend.data.OrderState;
 }),@NamedEntityGraph(name = Order.ENTITY_GRAPTH_FULL, attributeNodes = {
 		@NamedAttributeNode("customer"),
 		@NamedAttributeNode("pickupLocation"),
-		@NamedAttributeNode("items"),
-		@NamedAttributeNode("history")
+		@NamedAttributeNode("items")
 })})
-@Table(indexes = @Index(columnList = "dueDate"))
+@Table(indexes = { @Index(columnList = "dueDate"), @Index(columnList = "state") })
 public class Order extends AbstractEntity implements OrderSummary {
 
 	public static final String ENTITY_GRAPTH_BRIEF = "Order.brief";
@@ -67,12 +69,23 @@ public class Order extends AbstractEntity implements OrderSummary {
 	@NotNull(message = "{bakery.status.required}")
 	private OrderState state;
 
+	// Sum of the item prices, stored so that listings and sales figures do not
+	// need to go through the items
+	private Integer totalPrice;
 
-	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-	@OrderColumn
-	@JoinColumn
+
+	// Append only, the items refer to the order and are never rewritten. Read
+	// the latest items with OrderService.findLatestHistory instead of loading
+	// the whole history.
+	@OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+	@OrderBy("timestamp, id")
 	private List<HistoryItem> history;
 
+	// Items added since the order was created or loaded, saved by OrderService
+	// without reading the stored history
+	@Transient
+	private List<HistoryItem> newHistoryItems = new ArrayList<>();
+
 	public Order(User createdBy) {
 		this.state = OrderState.NEW;
 		setCustomer(new Customer());
@@ -87,10 +100,8 @@ public class Order extends AbstractEntity implements OrderSummary {
 	public void addHistoryItem(User createdBy, String comment) {
 		HistoryItem item = new HistoryItem(createdBy, comment);
 		item.setNewState(state);
-		if (history == null) {
-			history = new LinkedList<>();
-		}
-		history.add(item);
+		item.setOrder(this);
+		newHistoryItems.add(item);
 	}
 
 	@Override
@@ -136,6 +147,7 @@ public class Order extends AbstractEntity implements OrderSummary {
 
 	public void setItems(List<OrderItem> items) {
 		this.items = items;
+		updateTotalPrice();
 	}
 
 	public List<HistoryItem> getHistory() {
@@ -144,6 +156,18 @@ public class Order extends AbstractEntity implements OrderSummary {
 
 	public void setHistory(List<HistoryItem> history) {
 		this.history = history;
+		newHistoryItems.clear();
+		if (history != null) {
+			history.forEach(item -> item.setOrder(this));
+		}
+	}
+
+	/**
+	 * Returns the history items added since the order was created or loaded,
+	 * which are not saved yet.
+	 */
+	public List<HistoryItem> getNewHistoryItems() {
+		return newHistoryItems;
 	}
 
 	@Override
@@ -167,6 +191,22 @@ public class Order extends AbstractEntity implements OrderSummary {
 
 	@Override
 	public Integer getTotalPrice() {
-		return items.stream().map(i -> i.getTotalPrice()).reduce(0, Integer::sum);
+		return totalPrice == null ? 0 : totalPrice;
+	}
+
+	/**
+	 * Recomputes the stored total price from the items. Must be called after
+	 * changing the quantity or product of an item in place.
+	 */
+	@PrePersist
+	@PreUpdate
+	public void updateTotalPrice() {
+		int total = 0;
+		if (items != null) {
+			for (OrderItem item : items) {
+				total += item.getTotalPrice();
+			}
+		}
+		totalPrice = total;
 	}
 }
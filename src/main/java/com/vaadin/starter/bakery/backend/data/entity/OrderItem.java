@@ -1,7 +1,11 @@
 package com.vaadin.starter.bakery.backend.data.entity;
 
+import java.util.Objects;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -17,6 +21,10 @@ public class OrderItem extends AbstractEntity {
 	@NotNull
 	private Integer quantity = 1;
 
+	// Unit price of the product when it was ordered, so that later price changes
+	// do not affect existing orders
+	private Integer price;
+
 	@Size(max = 255)
 	private String comment;
 
@@ -25,9 +33,16 @@ public class OrderItem extends AbstractEntity {
 	}
 
 	public void setProduct(Product product) {
+		if (product == null || this.product == null || !Objects.equals(product.getId(), this.product.getId())) {
+			price = product == null ? null : product.getPrice();
+		}
 		this.product = product;
 	}
 
+	public Integer getPrice() {
+		return price;
+	}
+
 	public Integer getQuantity() {
 		return quantity;
 	}
@@ -45,6 +60,15 @@ public class OrderItem extends AbstractEntity {
 	}
 
 	public int getTotalPrice() {
-		return quantity == null || product == null ? 0 : quantity * product.getPrice();
+		Integer unitPrice = price != null || product == null ? price : product.getPrice();
+		return quantity == null || unitPrice == null ? 0 : quantity * unitPrice;
+	}
+
+	@PrePersist
+	@PreUpdate
+	void capturePrice() {
+		if (price == null && product != null) {
+			price = product.getPrice();
+		}
 	}
 }
@@ -0,0 +1,16 @@
+package com.vaadin.starter.bakery.backend.data.entity;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * The values orders are sorted by in the storefront, read on their own to find
+ * keyset positions without loading whole orders.
+ */
+public interface OrderSortKey {
+	Long getId();
+
+	LocalDate getDueDate();
+
+	LocalTime getDueTime();
+}
@@ -1,8 +1,19 @@
 package com.vaadin.starter.bakery.backend.repositories;
 
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.vaadin.starter.bakery.backend.data.entity.HistoryItem;
 
 public interface HistoryItemRepository extends JpaRepository<HistoryItem, Long> {
+
+	/**
+	 * Returns the most recent history items of an order, newest first, using the
+	 * index on the order and timestamp.
+	 */
+	@EntityGraph(attributePaths = "createdBy")
+	List<HistoryItem> findByOrderIdOrderByTimestampDescIdDesc(Long orderId, Limit limit);
 }
@@ -1,12 +1,19 @@
 package com.vaadin.starter.bakery.backend.repositories;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -14,18 +21,54 @@ import org.springframework.data.jpa.repository.Query;
 
 import com.vaadin.starter.bakery.backend.data.OrderState;
 import com.vaadin.starter.bakery.backend.data.entity.Order;
-import com.vaadin.starter.bakery.backend.data.entity.OrderSummary;
+import com.vaadin.starter.bakery.backend.data.entity.OrderSortKey;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
 	@EntityGraph(value = Order.ENTITY_GRAPTH_BRIEF, type = EntityGraphType.LOAD)
-	Page<Order> findByDueDateAfter(LocalDate filterDate, Pageable pageable);
+	Slice<Order> findByDueDateAfter(LocalDate filterDate, Pageable pageable);
 
 	@EntityGraph(value = Order.ENTITY_GRAPTH_BRIEF, type = EntityGraphType.LOAD)
-	Page<Order> findByCustomerFullNameContainingIgnoreCase(String searchQuery, Pageable pageable);
+	Slice<Order> findByCustomerFullNameContainingIgnoreCase(String searchQuery, Pageable pageable);
 
 	@EntityGraph(value = Order.ENTITY_GRAPTH_BRIEF, type = EntityGraphType.LOAD)
-	Page<Order> findByCustomerFullNameContainingIgnoreCaseAndDueDateAfter(String searchQuery, LocalDate dueDate, Pageable pageable);
+	Slice<Order> findByCustomerFullNameContainingIgnoreCaseAndDueDateAfter(String searchQuery, LocalDate dueDate, Pageable pageable);
+
+	@EntityGraph(value = Order.ENTITY_GRAPTH_BRIEF, type = EntityGraphType.LOAD)
+	Slice<Order> findBy(Pageable pageable);
+
+	@EntityGraph(value = Order.ENTITY_GRAPTH_BRIEF, type = EntityGraphType.LOAD)
+	Window<Order> findByDueDateAfter(LocalDate filterDate, ScrollPosition position, Limit limit, Sort sort);
+
+	@EntityGraph(value = Order.ENTITY_GRAPTH_BRIEF, type = EntityGraphType.LOAD)
+	Window<Order> findByCustomerFullNameContainingIgnoreCase(String searchQuery, ScrollPosition position, Limit limit,
+			Sort sort);
+
+	@EntityGraph(value = Order.ENTITY_GRAPTH_BRIEF, type = EntityGraphType.LOAD)
+	Window<Order> findByCustomerFullNameContainingIgnoreCaseAndDueDateAfter(String searchQuery, LocalDate dueDate,
+			ScrollPosition position, Limit limit, Sort sort);
+
+	@EntityGraph(value = Order.ENTITY_GRAPTH_BRIEF, type = EntityGraphType.LOAD)
+	Window<Order> findBy(ScrollPosition position, Limit limit, Sort sort);
+
+	@EntityGraph(value = Order.ENTITY_GRAPTH_BRIEF, type = EntityGraphType.LOAD)
+	Slice<Order> findByIdIn(Collection<Long> ids, Pageable pageable);
+
+	@EntityGraph(value = Order.ENTITY_GRAPTH_BRIEF, type = EntityGraphType.LOAD)
+	Window<Order> findByIdIn(Collection<Long> ids, ScrollPosition position, Limit limit, Sort sort);
+
+	Window<OrderSortKey> findSortKeysByDueDateAfter(LocalDate filterDate, ScrollPosition position, Limit limit,
+			Sort sort);
+
+	Window<OrderSortKey> findSortKeysByCustomerFullNameContainingIgnoreCase(String searchQuery,
+			ScrollPosition position, Limit limit, Sort sort);
+
+	Window<OrderSortKey> findSortKeysByCustomerFullNameContainingIgnoreCaseAndDueDateAfter(String searchQuery,
+			LocalDate dueDate, ScrollPosition position, Limit limit, Sort sort);
+
+	Window<OrderSortKey> findSortKeysBy(ScrollPosition position, Limit limit, Sort sort);
+
+	Window<OrderSortKey> findSortKeysByIdIn(Collection<Long> ids, ScrollPosition position, Limit limit, Sort sort);
 
 	@Override
 	@EntityGraph(value = Order.ENTITY_GRAPTH_BRIEF, type = EntityGraphType.LOAD)
@@ -35,29 +78,54 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 	@EntityGraph(value = Order.ENTITY_GRAPTH_BRIEF, type = EntityGraphType.LOAD)
 	Page<Order> findAll(Pageable pageable);
 
-	@EntityGraph(value = Order.ENTITY_GRAPTH_BRIEF, type = EntityGraphType.LOAD)
-	List<OrderSummary> findByDueDateGreaterThanEqual(LocalDate dueDate);
-
 	@Override
 	@EntityGraph(value = Order.ENTITY_GRAPTH_FULL, type = EntityGraphType.LOAD)
 	Optional<Order> findById(Long id);
 
 	long countByDueDateAfter(LocalDate dueDate);
 
-	long countByCustomerFullNameContainingIgnoreCase(String searchQuery);
-
-	long countByCustomerFullNameContainingIgnoreCaseAndDueDateAfter(String searchQuery, LocalDate dueDate);
-
 	long countByDueDate(LocalDate dueDate);
 
 	long countByDueDateAndStateIn(LocalDate dueDate, Collection<OrderState> state);
 
 	long countByState(OrderState state);
 
+	/**
+	 * Computes all delivery stats of the dashboard in one round trip. The first
+	 * row counts the orders due today and tomorrow, the second row the new
+	 * orders, so that both branches can use an index instead of scanning all
+	 * orders. The columns are delivered today, due today, due tomorrow, not
+	 * available today and new orders.
+	 */
+	@Query("SELECT sum(case when o.dueDate = ?1 and o.state = ?3 then 1L else 0L end), "
+			+ "sum(case when o.dueDate = ?1 then 1L else 0L end), "
+			+ "sum(case when o.dueDate = ?2 then 1L else 0L end), "
+			+ "sum(case when o.dueDate = ?1 and o.state in ?4 then 1L else 0L end), 0L "
+			+ "FROM OrderInfo o WHERE o.dueDate between ?1 and ?2 "
+			+ "UNION ALL SELECT 0L, 0L, 0L, 0L, count(o) FROM OrderInfo o WHERE o.state = ?5")
+	List<Object[]> getDeliveryStats(LocalDate today, LocalDate tomorrow, OrderState deliveredState,
+			Collection<OrderState> notAvailableStates, OrderState newState);
+
+	@Query("SELECT o.dueDate, o.dueTime FROM OrderInfo o WHERE o.state = ?1 AND (o.dueDate > ?2 OR (o.dueDate = ?2 AND o.dueTime > ?3)) ORDER BY o.dueDate, o.dueTime")
+	List<Object[]> findDueDatesAndTimesAfter(OrderState state, LocalDate date, LocalTime time, Limit limit);
+
+	@Query("SELECT min(o.dueTime) FROM OrderInfo o WHERE o.dueDate = ?1")
+	LocalTime findFirstDueTime(LocalDate dueDate);
+
+	/**
+	 * Returns when the order with the highest id among those due on or after the
+	 * given date was placed, i.e. the time of its first history item.
+	 */
+	@Query("SELECT min(h.timestamp) FROM OrderInfo o JOIN o.history h WHERE o.id = (SELECT max(o2.id) FROM OrderInfo o2 WHERE o2.dueDate >= ?1)")
+	LocalDateTime findPlacedTimeOfLastOrderDueFrom(LocalDate dueDate);
+
+	@Query("SELECT o.id, c.fullName, o.dueDate FROM OrderInfo o JOIN o.customer c")
+	List<Object[]> findCustomerNames();
+
 	@Query("SELECT month(dueDate) as month, count(*) as deliveries FROM OrderInfo o where o.state=?1 and year(dueDate)=?2 group by month(dueDate)")
 	List<Object[]> countPerMonth(OrderState orderState, int year);
 
-	@Query("SELECT year(o.dueDate) as y, month(o.dueDate) as m, sum(oi.quantity*p.price) as deliveries FROM OrderInfo o JOIN o.items oi JOIN oi.product p where o.state=?1 and year(o.dueDate)<=?2 AND year(o.dueDate)>=(?2-3) group by year(o.dueDate), month(o.dueDate) order by y desc, month(o.dueDate)")
+	@Query("SELECT year(o.dueDate) as y, month(o.dueDate) as m, sum(o.totalPrice) as deliveries FROM OrderInfo o where o.state=?1 and year(o.dueDate)<=?2 AND year(o.dueDate)>=(?2-3) group by year(o.dueDate), month(o.dueDate) order by y desc, month(o.dueDate)")
 	List<Object[]> sumPerMonthLastThreeYears(OrderState orderState, int year);
 
 	@Query("SELECT day(dueDate) as day, count(*) as deliveries FROM OrderInfo o where o.state=?1 and year(dueDate)=?2 and month(dueDate)=?3 group by day(dueDate)")
@@ -66,4 +134,13 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 	@Query("SELECT sum(oi.quantity), p FROM OrderInfo o JOIN o.items oi JOIN oi.product p WHERE o.state=?1 AND year(o.dueDate)=?2 AND month(o.dueDate)=?3 GROUP BY p.id ORDER BY p.id")
 	List<Object[]> countPerProduct(OrderState orderState, int year, int month);
 
+	@Query("SELECT o.dueDate, o.state, count(o), sum(o.totalPrice) FROM OrderInfo o GROUP BY o.dueDate, o.state")
+	List<Object[]> countAndSumPerDueDateAndState();
+
+	@Query("SELECT o.dueDate, o.state, oi.product.id, sum(oi.quantity) FROM OrderInfo o JOIN o.items oi GROUP BY o.dueDate, o.state, oi.product.id")
+	List<Object[]> sumPerDueDateStateAndProduct();
+
+	@Query("SELECT o.dueDate, o.state, o.totalPrice, oi.product.id, oi.quantity FROM OrderInfo o LEFT JOIN o.items oi WHERE o.id=?1")
+	List<Object[]> findRollupEntries(Long id);
+
 }
@@ -1,14 +1,38 @@
 package com.vaadin.starter.bakery.backend.repositories;
 
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import jakarta.persistence.QueryHint;
 
 import com.vaadin.starter.bakery.backend.data.entity.PickupLocation;
 
 public interface PickupLocationRepository extends JpaRepository<PickupLocation, Long> {
 
+	String QUERY_CACHE_REGION = "pickup-location-queries";
+
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION) })
 	Page<PickupLocation> findByNameLikeIgnoreCase(String nameFilter, Pageable pageable);
 
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION) })
 	int countByNameLikeIgnoreCase(String nameFilter);
+
+	Optional<PickupLocation> findByName(String name);
+
+	@Override
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION) })
+	Page<PickupLocation> findAll(Pageable pageable);
+
+	@Override
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION) })
+	long count();
 }
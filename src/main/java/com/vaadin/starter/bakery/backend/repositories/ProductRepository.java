@@ -1,8 +1,14 @@
 package com.vaadin.starter.bakery.backend.repositories;
 
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import jakarta.persistence.QueryHint;
 
 import com.vaadin.starter.bakery.backend.data.entity.Product;
 
@@ -12,10 +18,20 @@ import com.vaadin.starter.bakery.backend.data.entity.Product;
  * <p>Esta interface herda de {@link JpaRepository}, fornecendo métodos
  * CRUD básicos e acrescenta consultas personalizadas para
  * a entidade {@code Product}.
+ *
+ * <p>As consultas usadas pelas listas e caixas de seleção de produtos são
+ * guardadas na cache de consultas do Hibernate, e os produtos na cache de
+ * segundo nível.
  */
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+	/**
+	 * Região da cache de consultas onde ficam os resultados das consultas
+	 * de produtos.
+	 */
+	String QUERY_CACHE_REGION = "product-queries";
+
 	/**
      * Obtém uma página de produtos.
      *
@@ -23,6 +39,8 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @return uma {@link Page} contendo produtos de acordo com a paginação
      */
 
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION) })
 	Page<Product> findBy(Pageable page);
 
 	/**
@@ -34,6 +52,8 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @return uma {@link Page} contendo os produtos encontrados
      */
 
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION) })
 	Page<Product> findByNameLikeIgnoreCase(String name, Pageable page);
 
 	 /**
@@ -44,6 +64,28 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @return número total de produtos que correspondem ao padrão
      */
 
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION) })
 	int countByNameLikeIgnoreCase(String name);
 
+	/**
+     * Procura um produto pelo nome exato.
+     *
+     * @param name nome do produto
+     * @return o produto, se existir
+     */
+
+	Optional<Product> findByName(String name);
+
+	/**
+     * Conta o número total de produtos.
+     *
+     * @return número total de produtos
+     */
+
+	@Override
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION) })
+	long count();
+
 }
@@ -0,0 +1,253 @@
+package com.vaadin.starter.bakery.backend.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.vaadin.starter.bakery.app.HasLogger;
+import com.vaadin.starter.bakery.backend.data.entity.Order;
+import com.vaadin.starter.bakery.backend.repositories.OrderRepository;
+
+/**
+ * In-memory trigram index over the customer names of all orders, used for
+ * case-insensitive substring search.
+ * <p>
+ * Every distinct lower case name is indexed under each of its three character
+ * substrings. A search fragment of at least three characters only needs to look
+ * at the names sharing its rarest trigram, instead of scanning all orders and
+ * customers with {@code lower(fullName) like '%x%'}. Shorter fragments scan the
+ * distinct names, which are far fewer than the orders.
+ * <p>
+ * The index is built from the database on first use and is then kept up to
+ * date by {@link OrderService}.
+ */
+@Service
+public class CustomerNameIndex implements HasLogger {
+
+	private static final int GRAM_LENGTH = 3;
+
+	private final OrderRepository orderRepository;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Long, IndexedOrder> orders = new HashMap<>();
+
+	private final Map<String, Set<Long>> ordersByName = new HashMap<>();
+
+	private final Map<String, Set<String>> namesByTrigram = new HashMap<>();
+
+	private volatile boolean loaded;
+
+	@Autowired
+	public CustomerNameIndex(OrderRepository orderRepository) {
+		this.orderRepository = orderRepository;
+	}
+
+	/**
+	 * Returns the ids of the orders whose customer name contains the given
+	 * fragment, ignoring case, and that are due after the given date, if any.
+	 */
+	public List<Long> findOrderIds(String fragment, Optional<LocalDate> dueDateAfter) {
+		String query = normalize(fragment);
+		ensureLoaded();
+		lock.readLock().lock();
+		try {
+			List<Long> ids = new ArrayList<>();
+			for (String name : candidateNames(query)) {
+				if (!name.contains(query)) {
+					continue;
+				}
+				for (Long id : ordersByName.get(name)) {
+					LocalDate dueDate = orders.get(id).dueDate;
+					if (dueDateAfter.isEmpty() || (dueDate != null && dueDate.isAfter(dueDateAfter.get()))) {
+						ids.add(id);
+					}
+				}
+			}
+			return ids;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Indexes the customer name and due date of the given order, replacing what
+	 * was indexed for it before. When called inside a transaction, the index is
+	 * only updated once the transaction has committed.
+	 */
+	void update(Order order) {
+		Long id = order.getId();
+		String name = order.getCustomer() == null ? null : order.getCustomer().getFullName();
+		LocalDate dueDate = order.getDueDate();
+		afterCommit(() -> {
+			remove(id);
+			if (name != null) {
+				add(id, normalize(name), dueDate);
+			}
+		});
+	}
+
+	/**
+	 * Removes the given order from the index. When called inside a transaction,
+	 * the index is only updated once the transaction has committed.
+	 */
+	void remove(Order order) {
+		Long id = order.getId();
+		afterCommit(() -> remove(id));
+	}
+
+	/**
+	 * Drops the index so that it is rebuilt from the database on next use. Meant
+	 * for bulk changes that bypass {@link OrderService}.
+	 */
+	public void invalidate() {
+		lock.writeLock().lock();
+		try {
+			loaded = false;
+			clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private Collection<String> candidateNames(String query) {
+		if (query.length() < GRAM_LENGTH) {
+			return ordersByName.keySet();
+		}
+		Set<String> smallest = null;
+		for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+			Set<String> names = namesByTrigram.get(query.substring(i, i + GRAM_LENGTH));
+			if (names == null) {
+				return Set.of();
+			}
+			if (smallest == null || names.size() < smallest.size()) {
+				smallest = names;
+			}
+		}
+		return smallest;
+	}
+
+	private void afterCommit(Runnable change) {
+		Runnable guarded = () -> {
+			lock.writeLock().lock();
+			try {
+				// Otherwise the change is picked up when the index is built
+				if (loaded) {
+					change.run();
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		};
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					guarded.run();
+				}
+			});
+		} else {
+			guarded.run();
+		}
+	}
+
+	private void ensureLoaded() {
+		if (loaded) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			if (!loaded) {
+				load();
+				loaded = true;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void load() {
+		long start = System.currentTimeMillis();
+		clear();
+		for (Object[] row : orderRepository.findCustomerNames()) {
+			// order id, customer name, due date
+			if (row[1] != null) {
+				add((Long) row[0], normalize((String) row[1]), (LocalDate) row[2]);
+			}
+		}
+		getLogger().info("Built customer name index for {} orders and {} names in {} ms", orders.size(),
+				ordersByName.size(), System.currentTimeMillis() - start);
+	}
+
+	private void clear() {
+		orders.clear();
+		ordersByName.clear();
+		namesByTrigram.clear();
+	}
+
+	private void add(Long id, String name, LocalDate dueDate) {
+		Set<Long> ids = ordersByName.get(name);
+		if (ids == null) {
+			ids = new HashSet<>();
+			ordersByName.put(name, ids);
+			for (int i = 0; i + GRAM_LENGTH <= name.length(); i++) {
+				namesByTrigram.computeIfAbsent(name.substring(i, i + GRAM_LENGTH), gram -> new HashSet<>()).add(name);
+			}
+		}
+		ids.add(id);
+		orders.put(id, new IndexedOrder(name, dueDate));
+	}
+
+	private void remove(Long id) {
+		IndexedOrder order = orders.remove(id);
+		if (order == null) {
+			return;
+		}
+		Set<Long> ids = ordersByName.get(order.name);
+		ids.remove(id);
+		if (!ids.isEmpty()) {
+			return;
+		}
+		ordersByName.remove(order.name);
+		for (int i = 0; i + GRAM_LENGTH <= order.name.length(); i++) {
+			String gram = order.name.substring(i, i + GRAM_LENGTH);
+			Set<String> names = namesByTrigram.get(gram);
+			if (names != null) {
+				names.remove(order.name);
+				if (names.isEmpty()) {
+					namesByTrigram.remove(gram);
+				}
+			}
+		}
+	}
+
+	private static String normalize(String text) {
+		return text.toLowerCase(Locale.ROOT);
+	}
+
+	private static final class IndexedOrder {
+
+		private final String name;
+
+		private final LocalDate dueDate;
+
+		private IndexedOrder(String name, LocalDate dueDate) {
+			this.name = name;
+			this.dueDate = dueDate;
+		}
+	}
+}
@@ -0,0 +1,288 @@
+package com.vaadin.starter.bakery.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.vaadin.starter.bakery.app.HasLogger;
+import com.vaadin.starter.bakery.backend.data.DashboardData;
+import com.vaadin.starter.bakery.backend.data.DashboardSnapshot;
+import com.vaadin.starter.bakery.backend.data.DeliveryStats;
+import com.vaadin.starter.bakery.backend.data.entity.Product;
+
+/**
+ * Computes the dashboard contents once per month and shares the result between
+ * all UIs. A snapshot is recomputed when it is older than the configured
+ * refresh interval or when an order has been changed since it was taken.
+ * Concurrent refreshes of the same month are coalesced: one caller computes
+ * the snapshot while the others keep using the previous one, or wait for the
+ * computation if there is no previous snapshot yet.
+ * <p>
+ * The parts read from the in-memory {@link OrderRollupService} are computed
+ * inline. The parts that query the database run in parallel on a small
+ * dedicated pool, whose size also bounds the database connections the dashboard
+ * uses at a time. Their statements are cancelled by the database after the
+ * query timeout, so a hung query gives back its thread and connection. A part
+ * that fails or takes longer than the query timeout is shown empty, and the
+ * snapshot is then recomputed on the next request.
+ */
+@Service
+public class DashboardSnapshotService implements HasLogger {
+
+	private static final int QUERY_COUNT = 4;
+
+	// Marks snapshots with missing parts, which are always stale
+	private static final long INCOMPLETE = -1;
+
+	private final OrderService orderService;
+
+	private final Duration refreshInterval;
+
+	private final Duration queryTimeout;
+
+	private final TransactionTemplate queryTransaction;
+
+	private final ThreadPoolExecutor executor;
+
+	private final ConcurrentMap<YearMonth, Entry> entries = new ConcurrentHashMap<>();
+
+	private final AtomicLong generation = new AtomicLong();
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	@Autowired
+	public DashboardSnapshotService(OrderService orderService, PlatformTransactionManager transactionManager,
+			@Value("${bakery.dashboard.refresh-interval:30s}") Duration refreshInterval,
+			@Value("${bakery.dashboard.query-timeout:2s}") Duration queryTimeout,
+			@Value("${bakery.dashboard.query-threads:4}") int threads) {
+		this.orderService = orderService;
+		this.refreshInterval = refreshInterval;
+		this.queryTimeout = queryTimeout;
+		// The timeout of the transaction is applied to each statement run in it
+		this.queryTransaction = new TransactionTemplate(transactionManager);
+		this.queryTransaction.setReadOnly(true);
+		this.queryTransaction.setTimeout((int) Math.max(1, queryTimeout.plusMillis(999).toSeconds()));
+		AtomicInteger threadNumber = new AtomicInteger();
+		// Room for the queries of a few refreshes of different months at a time
+		this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(QUERY_COUNT * 4), runnable -> {
+					Thread thread = new Thread(runnable, "dashboard-query-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	public DashboardSnapshot getSnapshot(YearMonth month) {
+		Entry entry = entries.computeIfAbsent(month, Entry::new);
+		DashboardSnapshot snapshot = entry.snapshot;
+		if (snapshot != null && !isStale(snapshot)) {
+			hits.incrementAndGet();
+			return snapshot;
+		}
+		misses.incrementAndGet();
+		return refresh(entry, snapshot);
+	}
+
+	/**
+	 * Returns a snapshot that includes all order changes made before this call.
+	 * Unlike {@link #getSnapshot(YearMonth)}, never returns the previous
+	 * snapshot while a refresh is running: waits for the refresh and, if it was
+	 * started before the latest change, computes another one.
+	 */
+	public DashboardSnapshot getFreshSnapshot(YearMonth month) {
+		long required = generation.get();
+		Entry entry = entries.computeIfAbsent(month, Entry::new);
+		while (true) {
+			DashboardSnapshot snapshot = entry.snapshot;
+			if (snapshot != null && snapshot.getGeneration() >= required) {
+				return snapshot;
+			}
+			CompletableFuture<DashboardSnapshot> refresh = new CompletableFuture<>();
+			CompletableFuture<DashboardSnapshot> running = entry.refresh.compareAndExchange(null, refresh);
+			if (running == null) {
+				// May be incomplete, but retrying would not help while the queries time out
+				return compute(entry, refresh);
+			}
+			DashboardSnapshot refreshed = running.exceptionally(e -> null).join();
+			if (refreshed != null && refreshed.getGeneration() >= required) {
+				return refreshed;
+			}
+		}
+	}
+
+	// Runs before any other listener so that they already see a stale snapshot
+	@TransactionalEventListener(fallbackExecution = true)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void onOrderChanged(OrderChangedEvent event) {
+		generation.incrementAndGet();
+	}
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * Returns the age of the current snapshot for the given month, if there is one.
+	 */
+	public Optional<Duration> getSnapshotAge(YearMonth month) {
+		return Optional.ofNullable(entries.get(month)).map(entry -> entry.snapshot).map(DashboardSnapshot::getAge);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private boolean isStale(DashboardSnapshot snapshot) {
+		return snapshot.getGeneration() != generation.get() || snapshot.getAge().compareTo(refreshInterval) > 0;
+	}
+
+	private DashboardSnapshot refresh(Entry entry, DashboardSnapshot stale) {
+		CompletableFuture<DashboardSnapshot> refresh = new CompletableFuture<>();
+		CompletableFuture<DashboardSnapshot> running = entry.refresh.compareAndExchange(null, refresh);
+		if (running != null) {
+			return stale != null ? stale : running.join();
+		}
+		return compute(entry, refresh);
+	}
+
+	private DashboardSnapshot compute(Entry entry, CompletableFuture<DashboardSnapshot> refresh) {
+		try {
+			DashboardSnapshot snapshot = compute(entry.month);
+			entry.snapshot = snapshot;
+			refresh.complete(snapshot);
+			return snapshot;
+		} catch (RuntimeException e) {
+			refresh.completeExceptionally(e);
+			throw e;
+		} finally {
+			entry.refresh.set(null);
+		}
+	}
+
+	private DashboardSnapshot compute(YearMonth month) {
+		long start = System.currentTimeMillis();
+		// Read the generation first so that changes made during the computation
+		// cause another refresh
+		long currentGeneration = generation.get();
+		int m = month.getMonthValue();
+		int year = month.getYear();
+		AtomicBoolean incomplete = new AtomicBoolean();
+
+		// Read the rollup first, so that it is built here rather than under the
+		// query timeout of the product deliveries
+		DashboardData data = new DashboardData();
+		data.setDeliveryStats(read("delivery stats", orderService::getDeliveryStats, new DeliveryStats(), incomplete));
+		data.setDeliveriesThisMonth(read("deliveries per day", () -> orderService.getDeliveriesPerDay(m, year),
+				Collections.nCopies(month.lengthOfMonth(), (Number) null), incomplete));
+		data.setDeliveriesThisYear(read("deliveries per month", () -> orderService.getDeliveriesPerMonth(year),
+				Collections.nCopies(12, (Number) null), incomplete));
+		data.setSalesPerMonth(
+				read("sales per month", () -> orderService.getSalesPerMonth(m, year), new Number[3][12], incomplete));
+
+		CompletableFuture<Map<Product, Integer>> productDeliveries = query("product deliveries",
+				() -> orderService.getProductDeliveries(m, year), Collections.emptyMap(), incomplete);
+		CompletableFuture<LocalDateTime> nextDelivery = query("next delivery",
+				() -> orderService.findNextDelivery(LocalDateTime.now()).orElse(null), null, incomplete);
+		CompletableFuture<LocalTime> firstDeliveryTomorrow = query("first delivery tomorrow",
+				() -> orderService.findFirstDueTime(LocalDate.now().plusDays(1)).orElse(null), null, incomplete);
+		CompletableFuture<LocalDateTime> lastOrderPlaced = query("last order placed",
+				() -> orderService.findLastOrderPlacedTime().orElse(null), null, incomplete);
+
+		data.setProductDeliveries(productDeliveries.join());
+		DashboardSnapshot snapshot = new DashboardSnapshot(month, data, nextDelivery.join(),
+				firstDeliveryTomorrow.join(), lastOrderPlaced.join(),
+				incomplete.get() ? INCOMPLETE : currentGeneration);
+		getLogger().debug("Computed dashboard snapshot for {} in {} ms (hits: {}, misses: {})", month,
+				System.currentTimeMillis() - start, hits.get(), misses.get());
+		return snapshot;
+	}
+
+	/**
+	 * Reads a part of the dashboard from memory. Returns the fallback value and
+	 * marks the snapshot incomplete if the read fails.
+	 */
+	private <T> T read(String name, Supplier<T> read, T fallback, AtomicBoolean incomplete) {
+		try {
+			return read.get();
+		} catch (RuntimeException e) {
+			getLogger().warn("Dashboard read of {} failed, showing it empty", name, e);
+			incomplete.set(true);
+			return fallback;
+		}
+	}
+
+	/**
+	 * Runs a query of the dashboard on the query pool, in a read-only transaction
+	 * whose timeout cancels its statements. Completes with the fallback value and
+	 * marks the snapshot incomplete if the query fails, times out or cannot be
+	 * queued.
+	 */
+	private <T> CompletableFuture<T> query(String name, Supplier<T> query, T fallback, AtomicBoolean incomplete) {
+		CompletableFuture<T> future;
+		try {
+			future = CompletableFuture.supplyAsync(() -> queryTransaction.execute(status -> query.get()), executor);
+		} catch (RejectedExecutionException e) {
+			future = CompletableFuture.failedFuture(e);
+		}
+		return future.orTimeout(queryTimeout.toMillis(), TimeUnit.MILLISECONDS).exceptionally(e -> {
+			if (e instanceof TimeoutException) {
+				getLogger().warn("Dashboard query for {} took longer than {}, showing it empty", name, queryTimeout);
+			} else {
+				getLogger().warn("Dashboard query for {} failed, showing it empty", name, e);
+			}
+			incomplete.set(true);
+			return fallback;
+		});
+	}
+
+	private static class Entry {
+
+		private final YearMonth month;
+
+		private final AtomicReference<CompletableFuture<DashboardSnapshot>> refresh = new AtomicReference<>();
+
+		private volatile DashboardSnapshot snapshot;
+
+		private Entry(YearMonth month) {
+			this.month = month;
+		}
+	}
+}
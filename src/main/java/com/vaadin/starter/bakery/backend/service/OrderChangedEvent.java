@@ -0,0 +1,21 @@
+package com.vaadin.starter.bakery.backend.service;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by {@link OrderService} whenever an order has been saved or deleted.
+ */
+public class OrderChangedEvent extends ApplicationEvent {
+
+	private final Long orderId;
+
+	public OrderChangedEvent(Object source, Long orderId) {
+		super(source);
+		this.orderId = orderId;
+	}
+
+	public Long getOrderId() {
+		return orderId;
+	}
+
+}
@@ -0,0 +1,341 @@
+package com.vaadin.starter.bakery.backend.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.vaadin.starter.bakery.app.HasLogger;
+import com.vaadin.starter.bakery.backend.data.OrderState;
+import com.vaadin.starter.bakery.backend.data.entity.Order;
+import com.vaadin.starter.bakery.backend.data.entity.OrderItem;
+import com.vaadin.starter.bakery.backend.repositories.OrderRepository;
+
+/**
+ * In-memory rollup of order counts, product quantities and sales per due date,
+ * order state and product.
+ * <p>
+ * The rollup is built from the order tables on first use and is then kept up to
+ * date by {@link OrderService}, which reports the aggregate contribution of an
+ * order before and after every save. Reading dashboard figures from here costs
+ * O(days + products) instead of a scan of the order history.
+ */
+@Service
+public class OrderRollupService implements HasLogger {
+
+	private static final int STATE_COUNT = OrderState.values().length;
+
+	private final OrderRepository orderRepository;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final NavigableMap<LocalDate, DayRollup> days = new TreeMap<>();
+
+	private final int[] ordersPerState = new int[STATE_COUNT];
+
+	private volatile boolean loaded;
+
+	// Counts the builds and invalidations of the rollup, guarded by the lock
+	private long epoch;
+
+	@Autowired
+	public OrderRollupService(OrderRepository orderRepository) {
+		this.orderRepository = orderRepository;
+	}
+
+	/**
+	 * Reads the persisted contribution of the given order, i.e. what it currently
+	 * adds to the rollup. Must be called before any pending changes to the order
+	 * are flushed.
+	 */
+	Contribution contributionOf(Long orderId) {
+		if (orderId == null) {
+			return null;
+		}
+		return Contribution.of(orderRepository.findRollupEntries(orderId));
+	}
+
+	/**
+	 * Replaces the contribution {@code before} with {@code after}. Either may be
+	 * {@code null} for created or removed orders. When called inside a
+	 * transaction, the rollup is only updated once the transaction has committed,
+	 * and not at all if it has been rebuilt in the meantime: a build that starts
+	 * after the commit already includes the change.
+	 */
+	void update(Contribution before, Contribution after) {
+		if (before == null && after == null) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+				private long committingEpoch;
+
+				@Override
+				public void beforeCommit(boolean readOnly) {
+					committingEpoch = currentEpoch();
+				}
+
+				@Override
+				public void afterCommit() {
+					apply(before, after, committingEpoch);
+				}
+			});
+		} else {
+			apply(before, after, currentEpoch());
+		}
+	}
+
+	/**
+	 * Drops the rollup so that it is rebuilt from the database on next use. Meant
+	 * for bulk changes that bypass {@link OrderService}.
+	 */
+	public void invalidate() {
+		lock.writeLock().lock();
+		try {
+			loaded = false;
+			epoch++;
+			days.clear();
+			Arrays.fill(ordersPerState, 0);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int[] countPerDay(OrderState state, int year, int month) {
+		YearMonth yearMonth = YearMonth.of(year, month);
+		return read(() -> {
+			int[] counts = new int[yearMonth.lengthOfMonth()];
+			forEachDay(yearMonth.atDay(1), yearMonth.atEndOfMonth(),
+					(date, day) -> counts[date.getDayOfMonth() - 1] += day.orders[state.ordinal()]);
+			return counts;
+		});
+	}
+
+	public int[] countPerMonth(OrderState state, int year) {
+		return read(() -> {
+			int[] counts = new int[12];
+			forEachDay(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31),
+					(date, day) -> counts[date.getMonthValue() - 1] += day.orders[state.ordinal()]);
+			return counts;
+		});
+	}
+
+	public long[] sumPerMonth(OrderState state, int year) {
+		return read(() -> {
+			long[] sums = new long[12];
+			forEachDay(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31),
+					(date, day) -> sums[date.getMonthValue() - 1] += day.sales[state.ordinal()]);
+			return sums;
+		});
+	}
+
+	/**
+	 * Returns the quantities per product id, ordered by product id.
+	 */
+	public SortedMap<Long, Integer> countPerProduct(OrderState state, int year, int month) {
+		YearMonth yearMonth = YearMonth.of(year, month);
+		SortedMap<Long, Integer> quantities = read(() -> {
+			SortedMap<Long, Integer> sums = new TreeMap<>();
+			forEachDay(yearMonth.atDay(1), yearMonth.atEndOfMonth(), (date, day) -> day.quantities
+					.forEach((productId, perState) -> sums.merge(productId, perState[state.ordinal()], Integer::sum)));
+			return sums;
+		});
+		quantities.values().removeIf(quantity -> quantity == 0);
+		return quantities;
+	}
+
+	public int countByDueDate(LocalDate dueDate) {
+		return read(() -> {
+			DayRollup day = days.get(dueDate);
+			return day == null ? 0 : Arrays.stream(day.orders).sum();
+		});
+	}
+
+	public int countByDueDateAndStateIn(LocalDate dueDate, Collection<OrderState> states) {
+		return read(() -> {
+			DayRollup day = days.get(dueDate);
+			return day == null ? 0 : states.stream().mapToInt(state -> day.orders[state.ordinal()]).sum();
+		});
+	}
+
+	public int countByState(OrderState state) {
+		return read(() -> ordersPerState[state.ordinal()]);
+	}
+
+	private <T> T read(Supplier<T> reader) {
+		ensureLoaded();
+		lock.readLock().lock();
+		try {
+			return reader.get();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void forEachDay(LocalDate from, LocalDate to, DayConsumer consumer) {
+		days.subMap(from, true, to, true).forEach(consumer::accept);
+	}
+
+	private void ensureLoaded() {
+		if (loaded) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			if (!loaded) {
+				epoch++;
+				load();
+				loaded = true;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void load() {
+		long start = System.currentTimeMillis();
+		days.clear();
+		Arrays.fill(ordersPerState, 0);
+		for (Object[] row : orderRepository.countAndSumPerDueDateAndState()) {
+			// dueDate, state, orders, sales
+			DayRollup day = day((LocalDate) row[0]);
+			int state = ((OrderState) row[1]).ordinal();
+			int orders = ((Long) row[2]).intValue();
+			day.orders[state] += orders;
+			day.sales[state] += row[3] == null ? 0 : (Long) row[3];
+			ordersPerState[state] += orders;
+		}
+		for (Object[] row : orderRepository.sumPerDueDateStateAndProduct()) {
+			// dueDate, state, product id, quantity
+			int state = ((OrderState) row[1]).ordinal();
+			day((LocalDate) row[0]).quantity((Long) row[2])[state] += ((Long) row[3]).intValue();
+		}
+		getLogger().info("Built order rollup for {} days in {} ms", days.size(), System.currentTimeMillis() - start);
+	}
+
+	private long currentEpoch() {
+		lock.readLock().lock();
+		try {
+			return epoch;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void apply(Contribution before, Contribution after, long committingEpoch) {
+		lock.writeLock().lock();
+		try {
+			if (!loaded || epoch != committingEpoch) {
+				// The changes are, or will be, picked up when the rollup is built
+				return;
+			}
+			add(before, -1);
+			add(after, 1);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void add(Contribution contribution, int sign) {
+		if (contribution == null) {
+			return;
+		}
+		int state = contribution.state.ordinal();
+		DayRollup day = day(contribution.dueDate);
+		day.orders[state] += sign;
+		day.sales[state] += sign * contribution.sales;
+		contribution.quantities.forEach((productId, quantity) -> day.quantity(productId)[state] += sign * quantity);
+		ordersPerState[state] += sign;
+	}
+
+	private DayRollup day(LocalDate date) {
+		return days.computeIfAbsent(date, d -> new DayRollup());
+	}
+
+	@FunctionalInterface
+	private interface DayConsumer {
+		void accept(LocalDate date, DayRollup day);
+	}
+
+	private static final class DayRollup {
+
+		private final int[] orders = new int[STATE_COUNT];
+
+		private final long[] sales = new long[STATE_COUNT];
+
+		private final Map<Long, int[]> quantities = new HashMap<>();
+
+		private int[] quantity(Long productId) {
+			return quantities.computeIfAbsent(productId, id -> new int[STATE_COUNT]);
+		}
+	}
+
+	/**
+	 * What a single order adds to the rollup: one order on its due date and state,
+	 * plus the quantities and sales of its items.
+	 */
+	static final class Contribution {
+
+		private final LocalDate dueDate;
+
+		private final OrderState state;
+
+		private final Map<Long, Integer> quantities = new HashMap<>();
+
+		private final long sales;
+
+		private Contribution(LocalDate dueDate, OrderState state, Integer sales) {
+			this.dueDate = dueDate;
+			this.state = state;
+			this.sales = sales == null ? 0 : sales;
+		}
+
+		private void addItem(Long productId, Integer quantity) {
+			if (productId != null && quantity != null) {
+				quantities.merge(productId, quantity, Integer::sum);
+			}
+		}
+
+		static Contribution of(Order order) {
+			if (order == null || order.getDueDate() == null || order.getState() == null) {
+				return null;
+			}
+			Contribution contribution = new Contribution(order.getDueDate(), order.getState(), order.getTotalPrice());
+			if (order.getItems() != null) {
+				for (OrderItem item : order.getItems()) {
+					if (item.getProduct() != null) {
+						contribution.addItem(item.getProduct().getId(), item.getQuantity());
+					}
+				}
+			}
+			return contribution;
+		}
+
+		private static Contribution of(List<Object[]> rows) {
+			Contribution contribution = null;
+			for (Object[] row : rows) {
+				// dueDate, state, total price, product id, quantity
+				if (contribution == null) {
+					contribution = new Contribution((LocalDate) row[0], (OrderState) row[1], (Integer) row[2]);
+				}
+				contribution.addItem((Long) row[3], (Integer) row[4]);
+			}
+			return contribution;
+		}
+	}
+}
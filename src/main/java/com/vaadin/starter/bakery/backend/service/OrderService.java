@@ -1,75 +1,200 @@
 package com.vaadin.starter.bakery.backend.service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.SortedMap;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import jakarta.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
 
 import com.vaadin.starter.bakery.backend.data.DashboardData;
 import com.vaadin.starter.bakery.backend.data.DeliveryStats;
 import com.vaadin.starter.bakery.backend.data.OrderState;
+import com.vaadin.starter.bakery.backend.data.entity.HistoryItem;
 import com.vaadin.starter.bakery.backend.data.entity.Order;
-import com.vaadin.starter.bakery.backend.data.entity.OrderSummary;
+import com.vaadin.starter.bakery.backend.data.entity.OrderSortKey;
 import com.vaadin.starter.bakery.backend.data.entity.Product;
 import com.vaadin.starter.bakery.backend.data.entity.User;
+import com.vaadin.starter.bakery.backend.repositories.HistoryItemRepository;
 import com.vaadin.starter.bakery.backend.repositories.OrderRepository;
+import com.vaadin.starter.bakery.backend.repositories.ProductRepository;
+import com.vaadin.starter.bakery.backend.service.OrderRollupService.Contribution;
+
+import io.micrometer.core.annotation.Timed;
 
 @Service
+@Timed("bakery.order.service")
 public class OrderService implements CrudService<Order> {
 
 	private final OrderRepository orderRepository;
 
+	private final ProductRepository productRepository;
+
+	private final HistoryItemRepository historyItemRepository;
+
+	private final OrderRollupService rollupService;
+
+	private final CustomerNameIndex customerNameIndex;
+
+	private final ApplicationEventPublisher eventPublisher;
+
 	@Autowired
-	public OrderService(OrderRepository orderRepository) {
+	public OrderService(OrderRepository orderRepository, ProductRepository productRepository,
+			HistoryItemRepository historyItemRepository, OrderRollupService rollupService,
+			CustomerNameIndex customerNameIndex, ApplicationEventPublisher eventPublisher) {
 		super();
 		this.orderRepository = orderRepository;
+		this.productRepository = productRepository;
+		this.historyItemRepository = historyItemRepository;
+		this.rollupService = rollupService;
+		this.customerNameIndex = customerNameIndex;
+		this.eventPublisher = eventPublisher;
 	}
 
 	private static final Set<OrderState> notAvailableStates = Collections.unmodifiableSet(
 			EnumSet.complementOf(EnumSet.of(OrderState.DELIVERED, OrderState.READY, OrderState.CANCELLED)));
 
+	/**
+	 * Name searches matching more orders than this are left to the database, to
+	 * keep the id lists passed to it short. The index cannot narrow such searches
+	 * down much anyway.
+	 */
+	private static final int MAX_INDEXED_SEARCH_RESULTS = 1000;
+
+	/**
+	 * Number of the most recent history items shown in the order details.
+	 */
+	private static final int HISTORY_LIMIT = 50;
+
 	@Transactional(rollbackOn = Exception.class)
 	public Order saveOrder(User currentUser, Long id, BiConsumer<User, Order> orderFiller) {
 		Order order;
+		Contribution before = null;
 		if (id == null) {
 			order = new Order(currentUser);
 		} else {
 			order = load(id);
+			before = Contribution.of(order);
 		}
 		orderFiller.accept(currentUser, order);
-		return orderRepository.save(order);
+		order.updateTotalPrice();
+		Order saved = orderRepository.save(order);
+		saveNewHistoryItems(order, saved);
+		orderChanged(before, saved);
+		return saved;
 	}
 
 	@Transactional(rollbackOn = Exception.class)
 	public Order saveOrder(Order order) {
-		return orderRepository.save(order);
+		Contribution before = rollupService.contributionOf(order.getId());
+		order.updateTotalPrice();
+		Order saved = orderRepository.save(order);
+		saveNewHistoryItems(order, saved);
+		orderChanged(before, saved);
+		return saved;
 	}
 
+	@Override
+	@Transactional(rollbackOn = Exception.class)
+	public Order save(User currentUser, Order order) {
+		Contribution before = rollupService.contributionOf(order.getId());
+		order.updateTotalPrice();
+		Order saved = orderRepository.saveAndFlush(order);
+		saveNewHistoryItems(order, saved);
+		orderChanged(before, saved);
+		return saved;
+	}
+
+	@Override
+	@Transactional(rollbackOn = Exception.class)
+	public void delete(User currentUser, Order order) {
+		Contribution before = order == null ? null : rollupService.contributionOf(order.getId());
+		CrudService.super.delete(currentUser, order);
+		rollupService.update(before, null);
+		customerNameIndex.remove(order);
+		eventPublisher.publishEvent(new OrderChangedEvent(this, order.getId()));
+	}
+
+	private void orderChanged(Contribution before, Order saved) {
+		rollupService.update(before, Contribution.of(saved));
+		customerNameIndex.update(saved);
+		eventPublisher.publishEvent(new OrderChangedEvent(this, saved.getId()));
+	}
+
+	/**
+	 * Adds a comment to the history of a stored order. Only inserts the new
+	 * history item, the order itself and its earlier history are neither read nor
+	 * written.
+	 */
 	@Transactional(rollbackOn = Exception.class)
 	public Order addComment(User currentUser, Order order, String comment) {
 		order.addHistoryItem(currentUser, comment);
-		return orderRepository.save(order);
+		saveNewHistoryItems(order, orderRepository.getReferenceById(order.getId()));
+		eventPublisher.publishEvent(new OrderChangedEvent(this, order.getId()));
+		return order;
 	}
 
-	public Page<Order> findAnyMatchingAfterDueDate(Optional<String> optionalFilter,
+	/**
+	 * Returns the most recent history of an order, oldest first, including the
+	 * items that are not saved yet.
+	 */
+	public List<HistoryItem> findLatestHistory(Order order) {
+		List<HistoryItem> history = new ArrayList<>();
+		if (order.getId() != null) {
+			history.addAll(historyItemRepository.findByOrderIdOrderByTimestampDescIdDesc(order.getId(),
+					Limit.of(HISTORY_LIMIT)));
+			Collections.reverse(history);
+		}
+		history.addAll(order.getNewHistoryItems());
+		return history;
+	}
+
+	/**
+	 * Inserts the history items added to an order since it was loaded. The items
+	 * are not added to the mapped history, so that it is not fetched.
+	 */
+	private void saveNewHistoryItems(Order order, Order saved) {
+		List<HistoryItem> newItems = order.getNewHistoryItems();
+		if (!newItems.isEmpty()) {
+			newItems.forEach(item -> item.setOrder(saved));
+			historyItemRepository.saveAll(newItems);
+			newItems.clear();
+		}
+	}
+
+	/**
+	 * Returns one page of the matching orders. Only checks whether there are more
+	 * orders after the page, without counting them.
+	 */
+	public Slice<Order> findAnyMatchingAfterDueDate(Optional<String> optionalFilter,
 			Optional<LocalDate> optionalFilterDate, Pageable pageable) {
 		if (optionalFilter.isPresent() && !optionalFilter.get().isEmpty()) {
-			if (optionalFilterDate.isPresent()) {
+			Optional<List<Long>> ids = findIndexedOrderIds(optionalFilter.get(), optionalFilterDate);
+			if (ids.isPresent()) {
+				return orderRepository.findByIdIn(ids.get(), pageable);
+			} else if (optionalFilterDate.isPresent()) {
 				return orderRepository.findByCustomerFullNameContainingIgnoreCaseAndDueDateAfter(
 						optionalFilter.get(), optionalFilterDate.get(), pageable);
 			} else {
@@ -79,22 +204,94 @@ public class OrderService implements CrudService<Order> {
 			if (optionalFilterDate.isPresent()) {
 				return orderRepository.findByDueDateAfter(optionalFilterDate.get(), pageable);
 			} else {
-				return orderRepository.findAll(pageable);
+				return orderRepository.findBy(pageable);
 			}
 		}
 	}
 	
-	@Transactional
-	public List<OrderSummary> findAnyMatchingStartingToday() {
-		return orderRepository.findByDueDateGreaterThanEqual(LocalDate.now());
+	/**
+	 * Scrolls through the matching orders starting from the given position. With
+	 * a keyset position the database seeks directly to the first row instead of
+	 * skipping an offset. No count query is issued.
+	 */
+	public Window<Order> findAnyMatchingAfterDueDate(Optional<String> optionalFilter,
+			Optional<LocalDate> optionalFilterDate, ScrollPosition position, Limit limit, Sort sort) {
+		if (optionalFilter.isPresent() && !optionalFilter.get().isEmpty()) {
+			Optional<List<Long>> ids = findIndexedOrderIds(optionalFilter.get(), optionalFilterDate);
+			if (ids.isPresent()) {
+				return orderRepository.findByIdIn(ids.get(), position, limit, sort);
+			} else if (optionalFilterDate.isPresent()) {
+				return orderRepository.findByCustomerFullNameContainingIgnoreCaseAndDueDateAfter(
+						optionalFilter.get(), optionalFilterDate.get(), position, limit, sort);
+			} else {
+				return orderRepository.findByCustomerFullNameContainingIgnoreCase(optionalFilter.get(), position,
+						limit, sort);
+			}
+		} else {
+			if (optionalFilterDate.isPresent()) {
+				return orderRepository.findByDueDateAfter(optionalFilterDate.get(), position, limit, sort);
+			} else {
+				return orderRepository.findBy(position, limit, sort);
+			}
+		}
+	}
+
+	/**
+	 * Like {@link #findAnyMatchingAfterDueDate(Optional, Optional, ScrollPosition, Limit, Sort)},
+	 * but only reads the id, due date and due time of the orders. Used to skip
+	 * rows without loading them.
+	 */
+	public Window<OrderSortKey> findSortKeysMatchingAfterDueDate(Optional<String> optionalFilter,
+			Optional<LocalDate> optionalFilterDate, ScrollPosition position, Limit limit, Sort sort) {
+		if (optionalFilter.isPresent() && !optionalFilter.get().isEmpty()) {
+			Optional<List<Long>> ids = findIndexedOrderIds(optionalFilter.get(), optionalFilterDate);
+			if (ids.isPresent()) {
+				return orderRepository.findSortKeysByIdIn(ids.get(), position, limit, sort);
+			} else if (optionalFilterDate.isPresent()) {
+				return orderRepository.findSortKeysByCustomerFullNameContainingIgnoreCaseAndDueDateAfter(
+						optionalFilter.get(), optionalFilterDate.get(), position, limit, sort);
+			} else {
+				return orderRepository.findSortKeysByCustomerFullNameContainingIgnoreCase(optionalFilter.get(),
+						position, limit, sort);
+			}
+		} else {
+			if (optionalFilterDate.isPresent()) {
+				return orderRepository.findSortKeysByDueDateAfter(optionalFilterDate.get(), position, limit, sort);
+			} else {
+				return orderRepository.findSortKeysBy(position, limit, sort);
+			}
+		}
+	}
+
+	/**
+	 * Returns the due date and time of the first order that is ready for pickup
+	 * after the given time.
+	 */
+	public Optional<LocalDateTime> findNextDelivery(LocalDateTime after) {
+		List<Object[]> dueDatesAndTimes = orderRepository.findDueDatesAndTimesAfter(OrderState.READY,
+				after.toLocalDate(), after.toLocalTime(), Limit.of(1));
+		return dueDatesAndTimes.stream().findFirst()
+				.map(row -> LocalDateTime.of((LocalDate) row[0], (LocalTime) row[1]));
+	}
+
+	/**
+	 * Returns the earliest due time of the orders due on the given date.
+	 */
+	public Optional<LocalTime> findFirstDueTime(LocalDate dueDate) {
+		return Optional.ofNullable(orderRepository.findFirstDueTime(dueDate));
+	}
+
+	/**
+	 * Returns when the most recent of the orders due today or later was placed.
+	 */
+	public Optional<LocalDateTime> findLastOrderPlacedTime() {
+		return Optional.ofNullable(orderRepository.findPlacedTimeOfLastOrderDueFrom(LocalDate.now()));
 	}
 
 	public long countAnyMatchingAfterDueDate(Optional<String> optionalFilter, Optional<LocalDate> optionalFilterDate) {
-		if (optionalFilter.isPresent() && optionalFilterDate.isPresent()) {
-			return orderRepository.countByCustomerFullNameContainingIgnoreCaseAndDueDateAfter(optionalFilter.get(),
-					optionalFilterDate.get());
-		} else if (optionalFilter.isPresent()) {
-			return orderRepository.countByCustomerFullNameContainingIgnoreCase(optionalFilter.get());
+		optionalFilter = optionalFilter.filter(filter -> !filter.isEmpty());
+		if (optionalFilter.isPresent()) {
+			return customerNameIndex.findOrderIds(optionalFilter.get(), optionalFilterDate).size();
 		} else if (optionalFilterDate.isPresent()) {
 			return orderRepository.countByDueDateAfter(optionalFilterDate.get());
 		} else {
@@ -102,73 +299,131 @@ public class OrderService implements CrudService<Order> {
 		}
 	}
 
-	private DeliveryStats getDeliveryStats() {
+	/**
+	 * Resolves the orders matching a name search from the customer name index.
+	 * Returns nothing when there are too many of them to pass to the database as
+	 * an id list.
+	 */
+	private Optional<List<Long>> findIndexedOrderIds(String filter, Optional<LocalDate> optionalFilterDate) {
+		List<Long> ids = customerNameIndex.findOrderIds(filter, optionalFilterDate);
+		return ids.size() > MAX_INDEXED_SEARCH_RESULTS ? Optional.empty() : Optional.of(ids);
+	}
+
+	/**
+	 * Computes the delivery stats with a single aggregate query, bypassing the
+	 * in-memory rollup that {@link #getDeliveryStats()} reads.
+	 */
+	public DeliveryStats queryDeliveryStats() {
+		LocalDate today = LocalDate.now();
+		long[] counts = new long[5];
+		for (Object[] row : orderRepository.getDeliveryStats(today, today.plusDays(1), OrderState.DELIVERED,
+				notAvailableStates, OrderState.NEW)) {
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] += row[i] == null ? 0 : ((Number) row[i]).longValue();
+			}
+		}
+		DeliveryStats stats = new DeliveryStats();
+		stats.setDeliveredToday((int) counts[0]);
+		stats.setDueToday((int) counts[1]);
+		stats.setDueTomorrow((int) counts[2]);
+		stats.setNotAvailableToday((int) counts[3]);
+		stats.setNewOrders((int) counts[4]);
+		return stats;
+	}
+
+	/**
+	 * Returns the delivery stats from the in-memory rollup, which follows every
+	 * order change, without querying the database.
+	 */
+	public DeliveryStats getDeliveryStats() {
 		DeliveryStats stats = new DeliveryStats();
 		LocalDate today = LocalDate.now();
-		stats.setDueToday((int) orderRepository.countByDueDate(today));
-		stats.setDueTomorrow((int) orderRepository.countByDueDate(today.plusDays(1)));
-		stats.setDeliveredToday((int) orderRepository.countByDueDateAndStateIn(today,
+		stats.setDueToday(rollupService.countByDueDate(today));
+		stats.setDueTomorrow(rollupService.countByDueDate(today.plusDays(1)));
+		stats.setDeliveredToday(rollupService.countByDueDateAndStateIn(today,
 				Collections.singleton(OrderState.DELIVERED)));
 
-		stats.setNotAvailableToday((int) orderRepository.countByDueDateAndStateIn(today, notAvailableStates));
-		stats.setNewOrders((int) orderRepository.countByState(OrderState.NEW));
+		stats.setNotAvailableToday(rollupService.countByDueDateAndStateIn(today, notAvailableStates));
+		stats.setNewOrders(rollupService.countByState(OrderState.NEW));
 
 		return stats;
 	}
 
+	/**
+	 * Returns all the data of the dashboard, computing its parts one after
+	 * another. {@link DashboardSnapshotService} computes them in parallel
+	 * instead.
+	 */
 	public DashboardData getDashboardData(int month, int year) {
 		DashboardData data = new DashboardData();
 		data.setDeliveryStats(getDeliveryStats());
 		data.setDeliveriesThisMonth(getDeliveriesPerDay(month, year));
 		data.setDeliveriesThisYear(getDeliveriesPerMonth(year));
-
-		Number[][] salesPerMonth = new Number[3][12];
-		data.setSalesPerMonth(salesPerMonth);
-		List<Object[]> sales = orderRepository.sumPerMonthLastThreeYears(OrderState.DELIVERED, year);
-
-		for (Object[] salesData : sales) {
-			// year, month, deliveries
-			int y = year - (int) salesData[0];
-			int m = (int) salesData[1] - 1;
-			if (y == 0 && m == month - 1) {
-				// skip current month as it contains incomplete data
-				continue;
-			}
-			long count = (long) salesData[2];
-			salesPerMonth[y][m] = count;
-		}
-
-		LinkedHashMap<Product, Integer> productDeliveries = new LinkedHashMap<>();
-		data.setProductDeliveries(productDeliveries);
-		for (Object[] result : orderRepository.countPerProduct(OrderState.DELIVERED, year, month)) {
-			int sum = ((Long) result[0]).intValue();
-			Product p = (Product) result[1];
-			productDeliveries.put(p, sum);
-		}
-
+		data.setSalesPerMonth(getSalesPerMonth(month, year));
+		data.setProductDeliveries(getProductDeliveries(month, year));
 		return data;
 	}
 
-	private List<Number> getDeliveriesPerDay(int month, int year) {
-		int daysInMonth = YearMonth.of(year, month).lengthOfMonth();
-		return flattenAndReplaceMissingWithNull(daysInMonth,
-				orderRepository.countPerDay(OrderState.DELIVERED, year, month));
+	/**
+	 * Returns the number of orders delivered on each day of the given month, with
+	 * {@code null} for the days without deliveries.
+	 */
+	public List<Number> getDeliveriesPerDay(int month, int year) {
+		return replaceZeroWithNull(rollupService.countPerDay(OrderState.DELIVERED, year, month));
 	}
 
-	private List<Number> getDeliveriesPerMonth(int year) {
-		return flattenAndReplaceMissingWithNull(12, orderRepository.countPerMonth(OrderState.DELIVERED, year));
+	/**
+	 * Returns the number of orders delivered in each month of the given year, with
+	 * {@code null} for the months without deliveries.
+	 */
+	public List<Number> getDeliveriesPerMonth(int year) {
+		return replaceZeroWithNull(rollupService.countPerMonth(OrderState.DELIVERED, year));
 	}
 
-	private List<Number> flattenAndReplaceMissingWithNull(int length, List<Object[]> list) {
-		List<Number> counts = new ArrayList<>();
-		for (int i = 0; i < length; i++) {
-			counts.add(null);
+	/**
+	 * Returns the sales of each month of the given year and the two years before
+	 * it, leaving out the given month, which is not complete yet.
+	 */
+	public Number[][] getSalesPerMonth(int month, int year) {
+		Number[][] salesPerMonth = new Number[3][12];
+		for (int y = 0; y < salesPerMonth.length; y++) {
+			long[] sales = rollupService.sumPerMonth(OrderState.DELIVERED, year - y);
+			for (int m = 0; m < sales.length; m++) {
+				if (y == 0 && m == month - 1) {
+					// skip current month as it contains incomplete data
+					continue;
+				}
+				if (sales[m] != 0) {
+					salesPerMonth[y][m] = sales[m];
+				}
+			}
 		}
+		return salesPerMonth;
+	}
+
+	/**
+	 * Returns the quantity of each product delivered in the given month.
+	 */
+	public Map<Product, Integer> getProductDeliveries(int month, int year) {
+		Map<Product, Integer> productDeliveries = new LinkedHashMap<>();
+		SortedMap<Long, Integer> quantities = rollupService.countPerProduct(OrderState.DELIVERED, year, month);
+		Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+				.collect(Collectors.toMap(Product::getId, Function.identity()));
+		quantities.forEach((productId, sum) -> {
+			Product p = products.get(productId);
+			if (p != null) {
+				productDeliveries.put(p, sum);
+			}
+		});
+		return Collections.unmodifiableMap(productDeliveries);
+	}
 
-		for (Object[] result : list) {
-			counts.set((Integer) result[0] - 1, (Number) result[1]);
+	private List<Number> replaceZeroWithNull(int[] values) {
+		List<Number> counts = new ArrayList<>(values.length);
+		for (int value : values) {
+			counts.add(value == 0 ? null : value);
 		}
-		return counts;
+		return Collections.unmodifiableList(counts);
 	}
 
 	@Override
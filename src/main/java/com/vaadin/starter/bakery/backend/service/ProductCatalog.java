@@ -0,0 +1,137 @@
+package com.vaadin.starter.bakery.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.vaadin.starter.bakery.backend.data.entity.Product;
+import com.vaadin.starter.bakery.backend.repositories.ProductRepository;
+
+/**
+ * All products, kept in memory for the product combo boxes of the order editor.
+ * <p>
+ * The catalog is an immutable {@link Snapshot} that is read without locking. It
+ * is loaded on first use and replaced by a new snapshot whenever
+ * {@link ProductService} saves or deletes a product, so readers always see a
+ * complete catalog, either the old or the new one.
+ */
+@Service
+public class ProductCatalog {
+
+	private final ProductRepository productRepository;
+
+	private volatile Snapshot snapshot;
+
+	@Autowired
+	public ProductCatalog(ProductRepository productRepository) {
+		this.productRepository = productRepository;
+	}
+
+	/**
+	 * Returns the current catalog.
+	 */
+	public Snapshot getSnapshot() {
+		Snapshot current = snapshot;
+		if (current == null) {
+			current = loadIfAbsent();
+		}
+		return current;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		reload();
+	}
+
+	/**
+	 * Loads the catalog unless another caller already did while this one was
+	 * waiting for the lock, so a cold start runs a single query.
+	 */
+	private synchronized Snapshot loadIfAbsent() {
+		Snapshot current = snapshot;
+		if (current == null) {
+			current = reload();
+		}
+		return current;
+	}
+
+	private synchronized Snapshot reload() {
+		Snapshot loaded = new Snapshot(productRepository.findAll());
+		snapshot = loaded;
+		return loaded;
+	}
+
+	/**
+	 * An immutable list of products sorted by name, with the lower case names
+	 * precomputed for filtering.
+	 */
+	public static final class Snapshot {
+
+		private final List<Product> products;
+
+		private final String[] lowerCaseNames;
+
+		Snapshot(List<Product> products) {
+			List<Product> sorted = new ArrayList<>(products);
+			sorted.sort(Comparator.comparing(product -> normalize(product.getName())));
+			this.products = List.copyOf(sorted);
+			this.lowerCaseNames = new String[sorted.size()];
+			for (int i = 0; i < lowerCaseNames.length; i++) {
+				lowerCaseNames[i] = normalize(sorted.get(i).getName());
+			}
+		}
+
+		public List<Product> getProducts() {
+			return products;
+		}
+
+		/**
+		 * Returns the products whose name contains the given filter, ignoring case.
+		 * Names starting with the filter come first. An empty filter matches all
+		 * products.
+		 */
+		public List<Product> filter(String filter) {
+			String query = normalize(filter);
+			if (query.isEmpty()) {
+				return products;
+			}
+			List<Product> matches = new ArrayList<>();
+			List<Product> substringMatches = new ArrayList<>();
+			for (int i = 0; i < lowerCaseNames.length; i++) {
+				if (lowerCaseNames[i].startsWith(query)) {
+					matches.add(products.get(i));
+				} else if (lowerCaseNames[i].contains(query)) {
+					substringMatches.add(products.get(i));
+				}
+			}
+			matches.addAll(substringMatches);
+			return matches;
+		}
+
+		/**
+		 * Returns the number of products {@link #filter(String)} returns.
+		 */
+		public int count(String filter) {
+			String query = normalize(filter);
+			if (query.isEmpty()) {
+				return products.size();
+			}
+			int count = 0;
+			for (String name : lowerCaseNames) {
+				if (name.contains(query)) {
+					count++;
+				}
+			}
+			return count;
+		}
+
+		private static String normalize(String text) {
+			return text == null ? "" : text.toLowerCase(Locale.ROOT);
+		}
+	}
+}
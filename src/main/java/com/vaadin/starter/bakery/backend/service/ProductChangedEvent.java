@@ -0,0 +1,22 @@
+package com.vaadin.starter.bakery.backend.service;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by {@link ProductService} whenever a product has been saved or
+ * deleted.
+ */
+public class ProductChangedEvent extends ApplicationEvent {
+
+	private final Long productId;
+
+	public ProductChangedEvent(Object source, Long productId) {
+		super(source);
+		this.productId = productId;
+	}
+
+	public Long getProductId() {
+		return productId;
+	}
+
+}
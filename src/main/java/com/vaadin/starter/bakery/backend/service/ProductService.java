@@ -2,7 +2,10 @@ package com.vaadin.starter.bakery.backend.service;
 
 import java.util.Optional;
 
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,14 +16,23 @@ import com.vaadin.starter.bakery.backend.data.entity.Product;
 import com.vaadin.starter.bakery.backend.data.entity.User;
 import com.vaadin.starter.bakery.backend.repositories.ProductRepository;
 
+import jakarta.persistence.EntityManagerFactory;
+
 @Service
 public class ProductService implements FilterableCrudService<Product> {
 
 	private final ProductRepository productRepository;
 
+	private final Cache cache;
+
+	private final ApplicationEventPublisher eventPublisher;
+
 	@Autowired
-	public ProductService(ProductRepository productRepository) {
+	public ProductService(ProductRepository productRepository, EntityManagerFactory entityManagerFactory,
+			ApplicationEventPublisher eventPublisher) {
 		this.productRepository = productRepository;
+		this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+		this.eventPublisher = eventPublisher;
 	}
 
 	@Override
@@ -59,13 +71,36 @@ public class ProductService implements FilterableCrudService<Product> {
 
 	@Override
 	public Product save(User currentUser, Product entity) {
+		Product saved;
 		try {
-			return FilterableCrudService.super.save(currentUser, entity);
+			saved = FilterableCrudService.super.save(currentUser, entity);
 		} catch (DataIntegrityViolationException e) {
 			throw new UserFriendlyDataException(
 					"There is already a product with that name. Please select a unique name for the product.");
+		} finally {
+			evictCaches();
 		}
+		eventPublisher.publishEvent(new ProductChangedEvent(this, saved.getId()));
+		return saved;
+	}
+
+	@Override
+	public void delete(User currentUser, Product entity) {
+		try {
+			FilterableCrudService.super.delete(currentUser, entity);
+		} finally {
+			evictCaches();
+		}
+		eventPublisher.publishEvent(new ProductChangedEvent(this, entity.getId()));
+	}
 
+	/**
+	 * Drops the cached products and product queries, so that the product combo
+	 * boxes and lists read the changed catalog from the database.
+	 */
+	private void evictCaches() {
+		cache.evictEntityData(Product.class);
+		cache.evictQueryRegion(ProductRepository.QUERY_CACHE_REGION);
 	}
 
 }
@@ -0,0 +1,21 @@
+package com.vaadin.starter.bakery.backend.service;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by {@link UserService} whenever a user has been saved or deleted.
+ */
+public class UserChangedEvent extends ApplicationEvent {
+
+	private final Long userId;
+
+	public UserChangedEvent(Object source, Long userId) {
+		super(source);
+		this.userId = userId;
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+}
@@ -3,6 +3,7 @@ package com.vaadin.starter.bakery.backend.service;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -17,10 +18,12 @@ public class UserService implements FilterableCrudService<User> {
 	public static final String MODIFY_LOCKED_USER_NOT_PERMITTED = "User has been locked and cannot be modified or deleted";
 	private static final String DELETING_SELF_NOT_PERMITTED = "You cannot delete your own account";
 	private final UserRepository userRepository;
+	private final ApplicationEventPublisher eventPublisher;
 
 	@Autowired
-	public UserService(UserRepository userRepository) {
+	public UserService(UserRepository userRepository, ApplicationEventPublisher eventPublisher) {
 		this.userRepository = userRepository;
+		this.eventPublisher = eventPublisher;
 	}
 
 	public Page<User> findAnyMatching(Optional<String> filter, Pageable pageable) {
@@ -57,7 +60,9 @@ public class UserService implements FilterableCrudService<User> {
 	@Override
 	public User save(User currentUser, User entity) {
 		throwIfUserLocked(entity);
-		return getRepository().saveAndFlush(entity);
+		User saved = getRepository().saveAndFlush(entity);
+		eventPublisher.publishEvent(new UserChangedEvent(this, saved.getId()));
+		return saved;
 	}
 
 	@Override
@@ -66,6 +71,7 @@ public class UserService implements FilterableCrudService<User> {
 		throwIfDeletingSelf(currentUser, userToDelete);
 		throwIfUserLocked(userToDelete);
 		FilterableCrudService.super.delete(currentUser, userToDelete);
+		eventPublisher.publishEvent(new UserChangedEvent(this, userToDelete.getId()));
 	}
 
 	private void throwIfDeletingSelf(User currentUser, User user) {
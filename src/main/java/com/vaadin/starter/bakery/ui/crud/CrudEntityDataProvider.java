@@ -2,16 +2,21 @@ package com.vaadin.starter.bakery.ui.crud;
 
 import java.util.List;
 
+import com.vaadin.starter.bakery.app.metrics.DataProviderMetrics;
+import com.vaadin.starter.bakery.app.metrics.QueryTags;
 import com.vaadin.starter.bakery.backend.data.entity.AbstractEntity;
 import com.vaadin.starter.bakery.backend.service.FilterableCrudService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.util.ClassUtils;
 import org.vaadin.artur.spring.dataprovider.FilterablePageableDataProvider;
 
 import com.vaadin.flow.data.provider.Query;
 import com.vaadin.flow.data.provider.QuerySortOrder;
 import com.vaadin.flow.data.provider.QuerySortOrderBuilder;
 
+import io.micrometer.core.instrument.Tags;
+
 public class CrudEntityDataProvider<T extends AbstractEntity> extends FilterablePageableDataProvider<T, String> {
 
 	private final FilterableCrudService<T> crudService;
@@ -30,7 +35,9 @@ public class CrudEntityDataProvider<T extends AbstractEntity> extends Filterable
 
 	@Override
 	protected Page<T> fetchFromBackEnd(Query<T, String> query, Pageable pageable) {
-		return crudService.findAnyMatching(query.getFilter(), pageable);
+		Tags tags = metricTags(QueryTags.of(hasText(query), false, query.getLimit()));
+		return DataProviderMetrics.fetch(tags, () -> crudService.findAnyMatching(query.getFilter(), pageable),
+				Page::getNumberOfElements);
 	}
 
 	@Override
@@ -40,7 +47,17 @@ public class CrudEntityDataProvider<T extends AbstractEntity> extends Filterable
 
 	@Override
 	protected int sizeInBackEnd(Query<T, String> query) {
-		return (int) crudService.countAnyMatching(query.getFilter());
+		return DataProviderMetrics.size(metricTags(QueryTags.of(hasText(query), false)),
+				() -> (int) crudService.countAnyMatching(query.getFilter()));
+	}
+
+	private static boolean hasText(Query<?, String> query) {
+		return query.getFilter().filter(filter -> !filter.isEmpty()).isPresent();
+	}
+
+	private Tags metricTags(Tags queryTags) {
+		return DataProviderMetrics.tags(CrudEntityDataProvider.class, ClassUtils.getUserClass(crudService),
+				queryTags);
 	}
 
 }
@@ -0,0 +1,141 @@
+package com.vaadin.starter.bakery.ui.dataproviders;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import com.vaadin.flow.spring.annotation.SpringComponent;
+import com.vaadin.starter.bakery.app.HasLogger;
+import com.vaadin.starter.bakery.backend.service.OrderService;
+import com.vaadin.starter.bakery.ui.dataproviders.OrdersGridDataProvider.OrderFilter;
+
+/**
+ * Counts the orders matching a storefront filter in the background and shares
+ * the result between all UIs for a while.
+ * <p>
+ * The counts are only used as item count estimates for the order grids, which
+ * find the exact end of the data by themselves, so a count that is slightly out
+ * of date does no harm. Concurrent requests for the same filter share one count
+ * query.
+ */
+@SpringComponent
+public class OrderCountCache implements HasLogger {
+
+	private final OrderService orderService;
+
+	private final Duration timeToLive;
+
+	private final int maxEntries;
+
+	private final ThreadPoolExecutor executor;
+
+	private final ConcurrentMap<OrderFilter, Entry> entries = new ConcurrentHashMap<>();
+
+	@Autowired
+	public OrderCountCache(OrderService orderService,
+			@Value("${bakery.storefront.count-cache-ttl:60s}") Duration timeToLive,
+			@Value("${bakery.storefront.count-cache-size:1000}") int maxEntries,
+			@Value("${bakery.storefront.count-threads:2}") int threads) {
+		this.orderService = orderService;
+		this.timeToLive = timeToLive;
+		this.maxEntries = maxEntries;
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(maxEntries), runnable -> {
+					Thread thread = new Thread(runnable, "order-count-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Returns the number of orders matching the given filter. The returned future
+	 * is already completed when a recent count is cached.
+	 */
+	public CompletableFuture<Integer> count(OrderFilter filter) {
+		Entry entry = entries.get(filter);
+		if (entry != null && !entry.isExpired()) {
+			return entry.count;
+		}
+		if (entries.size() >= maxEntries) {
+			evict();
+		}
+		Entry fresh = new Entry();
+		entry = entries.merge(filter, fresh, (current, ignored) -> current.isExpired() ? fresh : current);
+		if (entry == fresh) {
+			submit(filter, fresh);
+		}
+		return entry.count;
+	}
+
+	/**
+	 * Returns the cached count for the given filter if it has already been
+	 * computed.
+	 */
+	public Optional<Integer> getIfPresent(OrderFilter filter) {
+		Entry entry = entries.get(filter);
+		if (entry == null || entry.isExpired() || !entry.count.isDone() || entry.count.isCompletedExceptionally()) {
+			return Optional.empty();
+		}
+		return Optional.of(entry.count.join());
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private void submit(OrderFilter filter, Entry entry) {
+		try {
+			executor.execute(() -> {
+				try {
+					entry.count.complete(countNow(filter));
+				} catch (RuntimeException e) {
+					entries.remove(filter, entry);
+					entry.count.completeExceptionally(e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			getLogger().warn("Order count queue is full, skipping count");
+			entries.remove(filter, entry);
+			entry.count.completeExceptionally(e);
+		}
+	}
+
+	private int countNow(OrderFilter filter) {
+		return (int) orderService.countAnyMatchingAfterDueDate(Optional.ofNullable(filter.getFilter()),
+				OrdersGridDataProvider.getFilterDate(filter.isShowPrevious()));
+	}
+
+	private void evict() {
+		entries.values().removeIf(Entry::isExpired);
+		if (entries.size() >= maxEntries) {
+			// Still full with recent counts, start over rather than tracking usage
+			entries.clear();
+		}
+	}
+
+	private class Entry {
+
+		private final CompletableFuture<Integer> count = new CompletableFuture<>();
+
+		private final long createdAt = System.nanoTime();
+
+		private boolean isExpired() {
+			return System.nanoTime() - createdAt > timeToLive.toNanos();
+		}
+	}
+}
@@ -2,27 +2,57 @@ package com.vaadin.starter.bakery.ui.dataproviders;
 
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Consumer;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.vaadin.artur.spring.dataprovider.FilterablePageableDataProvider;
 
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.grid.dataview.GridLazyDataView;
 import com.vaadin.flow.data.provider.Query;
 import com.vaadin.flow.data.provider.QuerySortOrder;
 import com.vaadin.flow.data.provider.QuerySortOrderBuilder;
 import com.vaadin.flow.spring.annotation.SpringComponent;
 import com.vaadin.flow.spring.annotation.UIScope;
+import com.vaadin.starter.bakery.app.metrics.DataProviderMetrics;
+import com.vaadin.starter.bakery.app.metrics.QueryTags;
 import com.vaadin.starter.bakery.backend.data.entity.Order;
+import com.vaadin.starter.bakery.backend.data.entity.OrderSortKey;
 import com.vaadin.starter.bakery.backend.service.OrderService;
 import com.vaadin.starter.bakery.ui.utils.BakeryConst;
 
+import io.micrometer.core.instrument.Tags;
+
 /**
  * A pageable order data provider.
+ * <p>
+ * With the default sort order, pages are fetched with keyset (seek) pagination:
+ * the provider remembers the sort key of the last row of every page it has
+ * served and continues from the nearest such boundary, so the database does
+ * not need to skip over large offsets when scrolling deep into the grid.
+ * <p>
+ * Fetches never count the matching rows. Grids are meant to use the provider
+ * with an unknown item count, see {@link #estimateItemCount(GridLazyDataView)},
+ * which is refined with an exact count computed in the background.
  */
 @SpringComponent
 @UIScope
@@ -48,15 +78,45 @@ public class OrdersGridDataProvider extends FilterablePageableDataProvider<Order
 		public static OrderFilter getEmptyFilter() {
 			return new OrderFilter("", false);
 		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			OrderFilter that = (OrderFilter) o;
+			return showPrevious == that.showPrevious && Objects.equals(filter, that.filter);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(filter, showPrevious);
+		}
 	}
 
+	private static final Sort DEFAULT_SORT = Sort.by(BakeryConst.DEFAULT_SORT_DIRECTION,
+			BakeryConst.ORDER_SORT_FIELDS);
+
+	/**
+	 * How many rows may be skipped after the nearest known page boundary before
+	 * an offset query is used instead.
+	 */
+	private static final int MAX_SEEK_DISTANCE = 500;
+
 	private final OrderService orderService;
+	private final OrderCountCache countCache;
 	private List<QuerySortOrder> defaultSortOrders;
-	private Consumer<Page<Order>> pageObserver;
-	
+
+	private final NavigableMap<Integer, ScrollPosition> pageBoundaries = new TreeMap<>();
+	private OrderFilter pageBoundariesFilter;
+
 	@Autowired
-	public OrdersGridDataProvider(OrderService orderService) {
+	public OrdersGridDataProvider(OrderService orderService, OrderCountCache countCache) {
 		this.orderService = orderService;
+		this.countCache = countCache;
 		setSortOrders(BakeryConst.DEFAULT_SORT_DIRECTION, BakeryConst.ORDER_SORT_FIELDS);
 	}
 
@@ -72,15 +132,126 @@ public class OrdersGridDataProvider extends FilterablePageableDataProvider<Order
 		defaultSortOrders = builder.build();
 	}
 
+	@Override
+	protected Stream<Order> fetchFromBackEnd(Query<Order, OrderFilter> query) {
+		OrderFilter filter = query.getFilter().orElse(OrderFilter.getEmptyFilter());
+		Tags tags = metricTags(QueryTags.of(hasText(filter), !filter.isShowPrevious(), query.getLimit()));
+		return DataProviderMetrics.fetch(tags, () -> fetchOrders(query, filter), List::size).stream();
+	}
+
+	private List<Order> fetchOrders(Query<Order, OrderFilter> query, OrderFilter filter) {
+		if (!query.getSortOrders().isEmpty()) {
+			// Keyset positions are only kept for the default sort order
+			return super.fetchFromBackEnd(query).collect(Collectors.toList());
+		}
+
+		if (!filter.equals(pageBoundariesFilter)) {
+			clearPageBoundaries();
+			pageBoundariesFilter = filter;
+		}
+
+		int offset = query.getOffset();
+		Map.Entry<Integer, ScrollPosition> boundary = pageBoundaries.floorEntry(offset);
+		ScrollPosition position;
+		int skip;
+		if (boundary != null && offset - boundary.getKey() <= MAX_SEEK_DISTANCE) {
+			position = boundary.getValue();
+			skip = offset - boundary.getKey();
+		} else {
+			// Offset positions point at the row before the first one returned
+			position = ScrollPosition.offset(offset - 1);
+			skip = 0;
+		}
+
+		if (skip > 0) {
+			// Seek over the skipped rows reading only their sort keys
+			List<OrderSortKey> skipped = orderService.findSortKeysMatchingAfterDueDate(
+					Optional.ofNullable(filter.getFilter()), getFilterDate(filter.isShowPrevious()), position,
+					Limit.of(skip), DEFAULT_SORT).getContent();
+			if (skipped.size() < skip) {
+				return Collections.emptyList();
+			}
+			position = positionAfter(skipped.get(skip - 1));
+			pageBoundaries.put(offset, position);
+		}
+
+		Window<Order> window = orderService.findAnyMatchingAfterDueDate(Optional.ofNullable(filter.getFilter()),
+				getFilterDate(filter.isShowPrevious()), position, Limit.of(query.getLimit()), DEFAULT_SORT);
+		List<Order> orders = window.getContent();
+		if (!orders.isEmpty()) {
+			pageBoundaries.put(offset + orders.size(), positionAfter(orders.get(orders.size() - 1)));
+		}
+		return orders;
+	}
+
 	@Override
 	protected Page<Order> fetchFromBackEnd(Query<Order, OrderFilter> query, Pageable pageable) {
 		OrderFilter filter = query.getFilter().orElse(OrderFilter.getEmptyFilter());
-		Page<Order> page = orderService.findAnyMatchingAfterDueDate(Optional.ofNullable(filter.getFilter()),
+		Slice<Order> slice = orderService.findAnyMatchingAfterDueDate(Optional.ofNullable(filter.getFilter()),
 				getFilterDate(filter.isShowPrevious()), pageable);
-		if (pageObserver != null) {
-			pageObserver.accept(page);
+		// The total is only known to be at least one more than what has been read
+		long total = pageable.getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+		return new PageImpl<>(slice.getContent(), pageable, total);
+	}
+
+	/**
+	 * Switches the given grid data view to an unknown item count and, once the
+	 * orders matching the current filter have been counted in the background,
+	 * uses that count as the estimate. Must be called from the UI thread after
+	 * every filter change.
+	 */
+	public void estimateItemCount(GridLazyDataView<Order> dataView) {
+		OrderFilter filter = getOptionalFilter().orElse(OrderFilter.getEmptyFilter());
+		dataView.setItemCountUnknown();
+		UI ui = UI.getCurrent();
+		if (ui == null) {
+			return;
 		}
-		return page;
+		countCache.count(filter).thenAccept(count -> ui.access(() -> {
+			OrderFilter current = getOptionalFilter().orElse(OrderFilter.getEmptyFilter());
+			if (count > 0 && filter.equals(current)) {
+				dataView.setItemCountEstimate(count);
+			}
+		}));
+	}
+
+	/**
+	 * Returns the id of the first order, in the default sort order, that matches
+	 * the given filter and is due on or after {@code from} and before
+	 * {@code to}. Either date may be null for an unbounded range. Only a single
+	 * row is read.
+	 */
+	public Optional<Long> findFirstOrderId(OrderFilter filter, LocalDate from, LocalDate to) {
+		Optional<LocalDate> filterDate = from == null ? getFilterDate(filter.isShowPrevious())
+				: Optional.of(from.minusDays(1));
+		Window<Order> window = orderService.findAnyMatchingAfterDueDate(Optional.ofNullable(filter.getFilter()),
+				filterDate, ScrollPosition.keyset(), Limit.of(1), DEFAULT_SORT);
+		return window.stream().findFirst().filter(order -> to == null || order.getDueDate().isBefore(to))
+				.map(Order::getId);
+	}
+
+	@Override
+	public void refreshAll() {
+		clearPageBoundaries();
+		super.refreshAll();
+	}
+
+	private void clearPageBoundaries() {
+		pageBoundaries.clear();
+		pageBoundaries.put(0, ScrollPosition.keyset());
+	}
+
+	/**
+	 * Returns the keyset position after the given {@link Order} or
+	 * {@link OrderSortKey}.
+	 */
+	private static ScrollPosition positionAfter(Object order) {
+		BeanWrapper bean = new BeanWrapperImpl(order);
+		Map<String, Object> keys = new LinkedHashMap<>();
+		for (String property : BakeryConst.ORDER_SORT_FIELDS) {
+			keys.put(property, bean.getPropertyValue(property));
+		}
+		return ScrollPosition.forward(keys);
 	}
 
 	@Override
@@ -90,12 +261,21 @@ public class OrdersGridDataProvider extends FilterablePageableDataProvider<Order
 
 	@Override
 	protected int sizeInBackEnd(Query<Order, OrderFilter> query) {
+		// Only used when a grid asks for an exact size
 		OrderFilter filter = query.getFilter().orElse(OrderFilter.getEmptyFilter());
-		return (int) orderService
-				.countAnyMatchingAfterDueDate(Optional.ofNullable(filter.getFilter()), getFilterDate(filter.isShowPrevious()));
+		return DataProviderMetrics.size(metricTags(QueryTags.of(hasText(filter), !filter.isShowPrevious())),
+				() -> countCache.getIfPresent(filter).orElseGet(() -> countCache.count(filter).join()));
 	}
 
-	private Optional<LocalDate> getFilterDate(boolean showPrevious) {
+	private static boolean hasText(OrderFilter filter) {
+		return filter.getFilter() != null && !filter.getFilter().isEmpty();
+	}
+
+	private static Tags metricTags(Tags queryTags) {
+		return DataProviderMetrics.tags(OrdersGridDataProvider.class, OrderService.class, queryTags);
+	}
+
+	static Optional<LocalDate> getFilterDate(boolean showPrevious) {
 		if (showPrevious) {
 			return Optional.empty();
 		}
@@ -103,10 +283,6 @@ public class OrdersGridDataProvider extends FilterablePageableDataProvider<Order
 		return Optional.of(LocalDate.now().minusDays(1));
 	}
 
-	public void setPageObserver(Consumer<Page<Order>> pageObserver) {
-		this.pageObserver = pageObserver;
-	}
-
 	@Override
 	public Object getId(Order item) {
 		return item.getId();
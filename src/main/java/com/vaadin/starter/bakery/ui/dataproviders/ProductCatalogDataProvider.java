@@ -0,0 +1,44 @@
+package com.vaadin.starter.bakery.ui.dataproviders;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.vaadin.flow.data.provider.AbstractBackEndDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.starter.bakery.backend.data.entity.Product;
+import com.vaadin.starter.bakery.backend.service.ProductCatalog;
+
+/**
+ * Serves products from the shared in-memory {@link ProductCatalog}, so product
+ * combo boxes do not query the database.
+ * <p>
+ * The provider itself holds no products. Every query reads the current catalog
+ * snapshot, so one provider per editor is cheap and sees product changes on the
+ * next fetch.
+ */
+public class ProductCatalogDataProvider extends AbstractBackEndDataProvider<Product, String> {
+
+	private final ProductCatalog catalog;
+
+	public ProductCatalogDataProvider(ProductCatalog catalog) {
+		this.catalog = catalog;
+	}
+
+	@Override
+	protected Stream<Product> fetchFromBackEnd(Query<Product, String> query) {
+		List<Product> products = catalog.getSnapshot().filter(query.getFilter().orElse(null));
+		int from = Math.min(query.getOffset(), products.size());
+		int to = Math.min(from + query.getLimit(), products.size());
+		return products.subList(from, to).stream();
+	}
+
+	@Override
+	protected int sizeInBackEnd(Query<Product, String> query) {
+		return catalog.getSnapshot().count(query.getFilter().orElse(null));
+	}
+
+	@Override
+	public Object getId(Product product) {
+		return product.getId();
+	}
+}
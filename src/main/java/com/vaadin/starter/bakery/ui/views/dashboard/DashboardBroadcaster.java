@@ -0,0 +1,132 @@
+package com.vaadin.starter.bakery.ui.views.dashboard;
+
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.vaadin.flow.shared.Registration;
+import com.vaadin.flow.spring.annotation.SpringComponent;
+import com.vaadin.starter.bakery.app.HasLogger;
+import com.vaadin.starter.bakery.backend.data.DashboardSnapshot;
+import com.vaadin.starter.bakery.backend.service.DashboardSnapshotService;
+import com.vaadin.starter.bakery.backend.service.OrderChangedEvent;
+
+/**
+ * Sends fresh dashboard snapshots to all open dashboards when orders change.
+ * <p>
+ * The snapshot is computed once per burst of changes and then handed to every
+ * registered listener on a bounded pool, so that a slow client does not delay
+ * the others. Each listener has at most one pending update, which always
+ * carries the latest snapshot.
+ */
+@SpringComponent
+public class DashboardBroadcaster implements HasLogger {
+
+	private final DashboardSnapshotService snapshotService;
+
+	private final ThreadPoolExecutor executor;
+
+	private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
+
+	private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+	@Autowired
+	public DashboardBroadcaster(DashboardSnapshotService snapshotService,
+			@Value("${bakery.dashboard.push-threads:4}") int threads,
+			@Value("${bakery.dashboard.push-queue-capacity:1000}") int queueCapacity) {
+		this.snapshotService = snapshotService;
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+					Thread thread = new Thread(runnable, "dashboard-push-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Registers a listener that is called with every new snapshot. The listener
+	 * is called from a background thread.
+	 */
+	public Registration register(Consumer<DashboardSnapshot> consumer) {
+		Listener listener = new Listener(consumer);
+		listeners.add(listener);
+		return () -> listeners.remove(listener);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOrderChanged(OrderChangedEvent event) {
+		if (listeners.isEmpty() || !refreshScheduled.compareAndSet(false, true)) {
+			return;
+		}
+		if (!submit(this::broadcast)) {
+			refreshScheduled.set(false);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private void broadcast() {
+		refreshScheduled.set(false);
+		// Not getSnapshot, which returns the previous snapshot while another
+		// refresh is running, and that refresh may not include this change
+		DashboardSnapshot snapshot = snapshotService.getFreshSnapshot(YearMonth.now());
+		listeners.forEach(listener -> listener.offer(snapshot));
+	}
+
+	private boolean submit(Runnable task) {
+		try {
+			executor.execute(task);
+			return true;
+		} catch (RejectedExecutionException e) {
+			getLogger().warn("Dashboard update queue is full, skipping update");
+			return false;
+		}
+	}
+
+	private class Listener {
+
+		private final Consumer<DashboardSnapshot> consumer;
+
+		private final AtomicReference<DashboardSnapshot> pending = new AtomicReference<>();
+
+		private Listener(Consumer<DashboardSnapshot> consumer) {
+			this.consumer = consumer;
+		}
+
+		private void offer(DashboardSnapshot snapshot) {
+			if (pending.getAndSet(snapshot) == null && !submit(this::deliver)) {
+				pending.set(null);
+			}
+		}
+
+		private void deliver() {
+			DashboardSnapshot snapshot = pending.getAndSet(null);
+			if (snapshot != null) {
+				try {
+					consumer.accept(snapshot);
+				} catch (RuntimeException e) {
+					getLogger().warn("Failed to push dashboard update", e);
+				}
+			}
+		}
+	}
+}
@@ -1,10 +1,13 @@
 package com.vaadin.starter.bakery.ui.views.dashboard;
 
 import java.time.LocalDate;
-import java.time.MonthDay;
 import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -13,7 +16,9 @@ import jakarta.annotation.security.PermitAll;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.Tag;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.charts.Chart;
@@ -34,12 +39,13 @@ import com.vaadin.flow.component.littemplate.LitTemplate;
 import com.vaadin.flow.component.template.Id;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
 import com.vaadin.starter.bakery.backend.data.DashboardData;
+import com.vaadin.starter.bakery.backend.data.DashboardSnapshot;
 import com.vaadin.starter.bakery.backend.data.DeliveryStats;
 import com.vaadin.starter.bakery.backend.data.entity.Order;
-import com.vaadin.starter.bakery.backend.data.entity.OrderSummary;
 import com.vaadin.starter.bakery.backend.data.entity.Product;
-import com.vaadin.starter.bakery.backend.service.OrderService;
+import com.vaadin.starter.bakery.backend.service.DashboardSnapshotService;
 import com.vaadin.starter.bakery.ui.MainView;
 import com.vaadin.starter.bakery.ui.dataproviders.OrdersGridDataProvider;
 import com.vaadin.starter.bakery.ui.utils.BakeryConst;
@@ -47,6 +53,9 @@ import com.vaadin.starter.bakery.ui.utils.FormattingUtils;
 import com.vaadin.starter.bakery.ui.views.storefront.OrderCard;
 import com.vaadin.starter.bakery.ui.views.storefront.beans.OrdersCountDataWithChart;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Tag("dashboard-view")
 @JsModule("./src/views/dashboard/dashboard-view.js")
 @Route(value = BakeryConst.PAGE_DASHBOARD, layout = MainView.class)
@@ -57,7 +66,25 @@ public class DashboardView extends LitTemplate {
 	private static final String[] MONTH_LABELS = new String[] {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul",
 			"Aug", "Sep", "Oct", "Nov", "Dec"};
 
-	private final OrderService orderService;
+	private final DashboardSnapshotService snapshotService;
+
+	private final DashboardBroadcaster broadcaster;
+
+	private Registration broadcasterRegistration;
+
+	private DashboardSnapshot shownSnapshot;
+
+	private ListSeries deliveriesThisYearSeries;
+
+	private ListSeries deliveriesThisMonthSeries;
+
+	private final ListSeries[] salesSeries = new ListSeries[3];
+
+	private DataSeries productDeliveriesSeries;
+
+	private DataSeries todayCountSeries;
+
+	private DataSeriesItemWithRadius todayCountPoint;
 
 	@Id("todayCount")
 	private DashboardCounterLabel todayCount;
@@ -90,25 +117,85 @@ public class DashboardView extends LitTemplate {
 	private Chart todayCountChart;
 
 	@Autowired
-	public DashboardView(OrderService orderService, OrdersGridDataProvider orderDataProvider) {
-		this.orderService = orderService;
+	public DashboardView(DashboardSnapshotService snapshotService, DashboardBroadcaster broadcaster,
+			OrdersGridDataProvider orderDataProvider, MeterRegistry meterRegistry) {
+		this.snapshotService = snapshotService;
+		this.broadcaster = broadcaster;
+		Timer.Sample construction = Timer.start(meterRegistry);
+		String exception = "none";
+		try {
+			grid.addColumn(OrderCard.getTemplate()
+					.withProperty("orderCard", OrderCard.jsonProvider(grid))
+					.withProperty("header", order -> null)
+					.withFunction("cardClick",
+							order -> UI.getCurrent().navigate(BakeryConst.PAGE_STOREFRONT + "/" + order.getId())));
+
+			grid.setSelectionMode(Grid.SelectionMode.NONE);
+			grid.setDataProvider(orderDataProvider);
+			orderDataProvider.estimateItemCount(grid.getLazyDataView());
+
+			DashboardSnapshot snapshot = snapshotService.getSnapshot(YearMonth.now());
+			DashboardData data = snapshot.getData();
+			populateYearlySalesChart(data);
+			populateDeliveriesCharts(data);
+			populateOrdersCounts(snapshot);
+			initProductSplitMonthlyGraph(data.getProductDeliveries());
+			shownSnapshot = snapshot;
+
+			measurePageLoadPerformance();
+		} catch (RuntimeException | Error e) {
+			exception = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			construction.stop(meterRegistry.timer("bakery.view.construction", "view", "DashboardView", "exception",
+					exception));
+		}
+	}
 
-		grid.addColumn(OrderCard.getTemplate()
-				.withProperty("orderCard", OrderCard::create)
-				.withProperty("header", order -> null)
-				.withFunction("cardClick",
-						order -> UI.getCurrent().navigate(BakeryConst.PAGE_STOREFRONT + "/" + order.getId())));
+	@Override
+	protected void onAttach(AttachEvent attachEvent) {
+		super.onAttach(attachEvent);
+		UI ui = attachEvent.getUI();
+		broadcasterRegistration = broadcaster.register(snapshot -> ui.access(() -> update(snapshot)));
+	}
 
-		grid.setSelectionMode(Grid.SelectionMode.NONE);
-		grid.setDataProvider(orderDataProvider);
+	@Override
+	protected void onDetach(DetachEvent detachEvent) {
+		if (broadcasterRegistration != null) {
+			broadcasterRegistration.remove();
+			broadcasterRegistration = null;
+		}
+		super.onDetach(detachEvent);
+	}
 
-		DashboardData data = orderService.getDashboardData(MonthDay.now().getMonthValue(), Year.now().getValue());
-		populateYearlySalesChart(data);
-		populateDeliveriesCharts(data);
-		populateOrdersCounts(data.getDeliveryStats());
-		initProductSplitMonthlyGraph(data.getProductDeliveries());
+	/**
+	 * Brings the counters and charts up to date with the given snapshot, only
+	 * sending the points that have changed.
+	 */
+	private void update(DashboardSnapshot snapshot) {
+		if (snapshot == shownSnapshot || !snapshot.getMonth().equals(shownSnapshot.getMonth())) {
+			// A new month is only shown after the page is reloaded
+			return;
+		}
+		DashboardData shown = shownSnapshot.getData();
+		DashboardData data = snapshot.getData();
+		updatePoints(deliveriesThisYearSeries, shown.getDeliveriesThisYear(), data.getDeliveriesThisYear());
+		updatePoints(deliveriesThisMonthSeries, shown.getDeliveriesThisMonth(), data.getDeliveriesThisMonth());
+		for (int i = 0; i < salesSeries.length; i++) {
+			updatePoints(salesSeries[i], Arrays.asList(shown.getSalesPerMonth(i)),
+					Arrays.asList(data.getSalesPerMonth(i)));
+		}
+		updateProductSplitMonthlyGraph(data.getProductDeliveries());
+		populateOrdersCounts(snapshot);
+		shownSnapshot = snapshot;
+	}
 
-		measurePageLoadPerformance();
+	private void updatePoints(ListSeries series, List<Number> shown, List<Number> values) {
+		for (int i = 0; i < values.size(); i++) {
+			if (!Objects.equals(shown.get(i), values.get(i))) {
+				series.updatePoint(i, values.get(i));
+			}
+		}
 	}
 
 	// This method is overridden to measure the page load performance and can be safely removed
@@ -139,26 +226,49 @@ public class DashboardView extends LitTemplate {
 		conf.getChart().setBorderRadius(4);
 		conf.getChart().setStyledMode(true);
 		conf.setTitle("Products delivered in " + FormattingUtils.getFullMonthName(today));
-		DataSeries deliveriesPerProductSeries = new DataSeries(productDeliveries.entrySet().stream()
+		productDeliveriesSeries = new DataSeries(productDeliveries.entrySet().stream()
 				.map(e -> new DataSeriesItem(e.getKey().getName(), e.getValue())).collect(Collectors.toList()));
 		PlotOptionsPie plotOptionsPie = new PlotOptionsPie();
 		plotOptionsPie.setInnerSize("60%");
 		plotOptionsPie.getDataLabels().setCrop(false);
-		deliveriesPerProductSeries.setPlotOptions(plotOptionsPie);
-		conf.addSeries(deliveriesPerProductSeries);
+		productDeliveriesSeries.setPlotOptions(plotOptionsPie);
+		conf.addSeries(productDeliveriesSeries);
 	}
 
-	private void populateOrdersCounts(DeliveryStats deliveryStats) {
-		List<OrderSummary> orders = orderService.findAnyMatchingStartingToday();
+	private void updateProductSplitMonthlyGraph(Map<Product, Integer> productDeliveries) {
+		Map<String, Integer> deliveries = productDeliveries.entrySet().stream()
+				.collect(Collectors.toMap(e -> e.getKey().getName(), Map.Entry::getValue, Integer::sum));
+		for (DataSeriesItem item : new ArrayList<>(productDeliveriesSeries.getData())) {
+			if (!deliveries.containsKey(item.getName())) {
+				productDeliveriesSeries.remove(item);
+			}
+		}
+		deliveries.forEach((name, count) -> {
+			DataSeriesItem item = productDeliveriesSeries.get(name);
+			if (item == null) {
+				productDeliveriesSeries.add(new DataSeriesItem(name, count));
+			} else if (!Objects.equals(item.getY(), count)) {
+				item.setY(count);
+				productDeliveriesSeries.update(item);
+			}
+		});
+	}
+
+	private void populateOrdersCounts(DashboardSnapshot snapshot) {
+		DeliveryStats deliveryStats = snapshot.getData().getDeliveryStats();
 
 		OrdersCountDataWithChart todaysOrdersCountData = DashboardUtils
-				.getTodaysOrdersCountData(deliveryStats, orders.iterator());
+				.getTodaysOrdersCountData(deliveryStats, snapshot.getNextDelivery());
 		todayCount.setOrdersCountData(todaysOrdersCountData);
-		initTodayCountSolidgaugeChart(todaysOrdersCountData);
+		if (todayCountPoint == null) {
+			initTodayCountSolidgaugeChart(todaysOrdersCountData);
+		} else {
+			updateTodayCountSolidgaugeChart(todaysOrdersCountData);
+		}
 		notAvailableCount.setOrdersCountData(DashboardUtils.getNotAvailableOrdersCountData(deliveryStats));
-		Order lastOrder = orderService.load(orders.get(orders.size() - 1).getId());
-		newCount.setOrdersCountData(DashboardUtils.getNewOrdersCountData(deliveryStats, lastOrder));
-		tomorrowCount.setOrdersCountData(DashboardUtils.getTomorrowOrdersCountData(deliveryStats, orders.iterator()));
+		newCount.setOrdersCountData(DashboardUtils.getNewOrdersCountData(deliveryStats, snapshot.getLastOrderPlaced()));
+		tomorrowCount.setOrdersCountData(DashboardUtils.getTomorrowOrdersCountData(deliveryStats,
+				snapshot.getFirstDeliveryTomorrow()));
 	}
 
 
@@ -177,11 +287,12 @@ public class DashboardView extends LitTemplate {
 		opt.getDataLabels().setEnabled(false);
 		configuration.setPlotOptions(opt);
 
-		DataSeriesItemWithRadius point = new DataSeriesItemWithRadius();
-		point.setY(data.getCount());
-		point.setInnerRadius("100%");
-		point.setRadius("110%");
-		configuration.setSeries(new DataSeries(point));
+		todayCountPoint = new DataSeriesItemWithRadius();
+		todayCountPoint.setY(data.getCount());
+		todayCountPoint.setInnerRadius("100%");
+		todayCountPoint.setRadius("110%");
+		todayCountSeries = new DataSeries(todayCountPoint);
+		configuration.setSeries(todayCountSeries);
 
 		Pane pane = configuration.getPane();
 		pane.setStartAngle(0);
@@ -194,6 +305,18 @@ public class DashboardView extends LitTemplate {
 		pane.setBackground(background);
 	}
 
+	private void updateTodayCountSolidgaugeChart(OrdersCountDataWithChart data) {
+		Configuration configuration = todayCountChart.getConfiguration();
+		if (!Objects.equals(configuration.getyAxis().getMax(), data.getOverall())) {
+			configuration.getyAxis().setMax(data.getOverall());
+			configuration.getyAxis().setExtremes(0, data.getOverall());
+		}
+		if (!Objects.equals(todayCountPoint.getY(), data.getCount())) {
+			todayCountPoint.setY(data.getCount());
+			todayCountSeries.update(todayCountPoint);
+		}
+	}
+
 	private void populateDeliveriesCharts(DashboardData data) {
 		LocalDate today = LocalDate.now();
 
@@ -203,7 +326,8 @@ public class DashboardView extends LitTemplate {
 
 		yearConf.setTitle("Deliveries in " + today.getYear());
 		yearConf.getxAxis().setCategories(MONTH_LABELS);
-		yearConf.addSeries(new ListSeries("per Month", data.getDeliveriesThisYear()));
+		deliveriesThisYearSeries = new ListSeries("per Month", data.getDeliveriesThisYear());
+		yearConf.addSeries(deliveriesThisYearSeries);
 		yearConf.getChart().setStyledMode(true);
 
 		// init the 'Deliveries in [this month]' chart
@@ -216,7 +340,8 @@ public class DashboardView extends LitTemplate {
 
 		monthConf.setTitle("Deliveries in " + FormattingUtils.getFullMonthName(today));
 		monthConf.getxAxis().setCategories(deliveriesThisMonthCategories);
-		monthConf.addSeries(new ListSeries("per Day", deliveriesThisMonth));
+		deliveriesThisMonthSeries = new ListSeries("per Day", deliveriesThisMonth);
+		monthConf.addSeries(deliveriesThisMonthSeries);
 	}
 
 	private void configureColumnChart(Configuration conf) {
@@ -248,7 +373,8 @@ public class DashboardView extends LitTemplate {
 
 		int year = Year.now().getValue();
 		for (int i = 0; i < 3; i++) {
-			conf.addSeries(new ListSeries(Integer.toString(year - i), data.getSalesPerMonth(i)));
+			salesSeries[i] = new ListSeries(Integer.toString(year - i), data.getSalesPerMonth(i));
+			conf.addSeries(salesSeries[i]);
 		}
 	}
 }
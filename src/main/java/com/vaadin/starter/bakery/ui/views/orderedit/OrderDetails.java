@@ -3,10 +3,8 @@
  */
 package com.vaadin.starter.bakery.ui.views.orderedit;
 
+import java.util.List;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.vaadin.flow.component.ClickEvent;
 import com.vaadin.flow.component.ComponentEventListener;
 import com.vaadin.flow.component.Tag;
@@ -19,20 +17,11 @@ import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.shared.Registration;
 import com.vaadin.starter.bakery.backend.data.entity.HistoryItem;
 import com.vaadin.starter.bakery.backend.data.entity.Order;
-import com.vaadin.starter.bakery.backend.data.entity.Product;
 import com.vaadin.starter.bakery.ui.events.CancelEvent;
 import com.vaadin.starter.bakery.ui.events.SaveEvent;
-import com.vaadin.starter.bakery.ui.utils.converters.CurrencyFormatter;
-import com.vaadin.starter.bakery.ui.utils.converters.LocalDateTimeConverter;
-import com.vaadin.starter.bakery.ui.utils.converters.LocalTimeConverter;
-import com.vaadin.starter.bakery.ui.views.storefront.converters.StorefrontLocalDateConverter;
 import com.vaadin.starter.bakery.ui.views.storefront.events.CommentEvent;
 import com.vaadin.starter.bakery.ui.views.storefront.events.EditEvent;
 
-import elemental.json.Json;
-import elemental.json.JsonArray;
-import elemental.json.JsonObject;
-
 /**
  * The component displaying a full (read-only) summary of an order, and a comment
  * field to add comments.
@@ -83,32 +72,15 @@ public class OrderDetails extends LitTemplate {
 		edit.addClickListener(e -> fireEvent(new EditEvent(this)));
 	}
 
-	public void display(Order order, boolean review) {
+	/**
+	 * Shows the order with the given history, which is usually only the most
+	 * recent part of it, see {@code OrderService.findLatestHistory}.
+	 */
+	public void display(Order order, List<HistoryItem> history, boolean review) {
 		getElement().setProperty("review", review);
 		this.order = order;
 
-		JsonObject item = beanToJson(order);
-
-		// Include formatted values to the JsonObject
-		item.put("formattedDueDate", beanToJson(new StorefrontLocalDateConverter().encode(order.getDueDate())));
-		item.put("formattedDueTime", new LocalTimeConverter().encode(order.getDueTime()));
-		item.put("formattedTotalPrice", new CurrencyFormatter().encode(order.getTotalPrice()));
-
-		JsonArray orderItems = item.getArray("items");
-		for (int i = 0; i < orderItems.length(); i++) {
-			JsonObject itemProduct = orderItems.getObject(i).getObject("product");
-			Product product = order.getItems().get(i).getProduct();
-			itemProduct.put("formattedPrice", new CurrencyFormatter().encode(product.getPrice()));
-		}
-
-		JsonArray orderHistory = item.getArray("history");
-		for (int i = 0; i < orderHistory.length(); i++) {
-			JsonObject itemHistory = orderHistory.getObject(i);
-			HistoryItem historyItem = order.getHistory().get(i);
-			itemHistory.put("formattedTimestamp", new LocalDateTimeConverter().encode(historyItem.getTimestamp()));
-		}
-		
-		getElement().setPropertyJson("item", item);
+		getElement().setPropertyJson("item", OrderDetailsJson.toJson(order, history));
 
 		if (!review) {
 			commentField.clear();
@@ -116,18 +88,6 @@ public class OrderDetails extends LitTemplate {
 		this.isDirty = review;
 	}
 
-	// Workaround https://github.com/vaadin/flow/issues/13317
-	private JsonObject beanToJson(Object bean) {
-		try {
-			ObjectMapper objectMapper = new ObjectMapper();
-			objectMapper.registerModule(new JavaTimeModule());
-			return Json.parse(objectMapper.writeValueAsString(bean));
-		} catch (JsonProcessingException e) {
-			e.printStackTrace();
-		}
-		return null;
-	}
-
 	public boolean isDirty() {
 		return isDirty;
 	}
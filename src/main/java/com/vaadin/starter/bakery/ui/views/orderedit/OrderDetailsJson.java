@@ -0,0 +1,126 @@
+package com.vaadin.starter.bakery.ui.views.orderedit;
+
+import java.util.List;
+
+import com.vaadin.starter.bakery.backend.data.OrderState;
+import com.vaadin.starter.bakery.backend.data.entity.Customer;
+import com.vaadin.starter.bakery.backend.data.entity.HistoryItem;
+import com.vaadin.starter.bakery.backend.data.entity.Order;
+import com.vaadin.starter.bakery.backend.data.entity.OrderItem;
+import com.vaadin.starter.bakery.backend.data.entity.PickupLocation;
+import com.vaadin.starter.bakery.backend.data.entity.Product;
+import com.vaadin.starter.bakery.backend.data.entity.User;
+import com.vaadin.starter.bakery.ui.utils.converters.CurrencyFormatter;
+import com.vaadin.starter.bakery.ui.utils.converters.LocalDateTimeConverter;
+import com.vaadin.starter.bakery.ui.utils.converters.LocalTimeConverter;
+import com.vaadin.starter.bakery.ui.views.storefront.converters.StorefrontDate;
+import com.vaadin.starter.bakery.ui.views.storefront.converters.StorefrontLocalDateConverter;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+/**
+ * Writes the {@code item} property of {@code order-details.js} straight from an
+ * order, including only the values the template shows.
+ */
+class OrderDetailsJson {
+
+	private static final StorefrontLocalDateConverter DATE_CONVERTER = new StorefrontLocalDateConverter();
+
+	private static final LocalTimeConverter TIME_CONVERTER = new LocalTimeConverter();
+
+	private static final LocalDateTimeConverter DATE_TIME_CONVERTER = new LocalDateTimeConverter();
+
+	private static final CurrencyFormatter CURRENCY_FORMATTER = new CurrencyFormatter();
+
+	private OrderDetailsJson() {
+	}
+
+	static JsonObject toJson(Order order, List<HistoryItem> history) {
+		JsonObject json = Json.createObject();
+		if (order.getId() != null) {
+			json.put("id", order.getId());
+		}
+		putState(json, "state", order.getState());
+		json.put("formattedDueDate", toJson(DATE_CONVERTER.encode(order.getDueDate())));
+		putString(json, "formattedDueTime", TIME_CONVERTER.encode(order.getDueTime()));
+		putString(json, "formattedTotalPrice", CURRENCY_FORMATTER.encode(order.getTotalPrice()));
+
+		JsonObject pickupLocation = Json.createObject();
+		PickupLocation location = order.getPickupLocation();
+		putString(pickupLocation, "name", location == null ? null : location.getName());
+		json.put("pickupLocation", pickupLocation);
+
+		JsonObject customer = Json.createObject();
+		Customer orderCustomer = order.getCustomer();
+		if (orderCustomer != null) {
+			putString(customer, "fullName", orderCustomer.getFullName());
+			putString(customer, "phoneNumber", orderCustomer.getPhoneNumber());
+			putString(customer, "details", orderCustomer.getDetails());
+		}
+		json.put("customer", customer);
+
+		JsonArray items = Json.createArray();
+		if (order.getItems() != null) {
+			for (OrderItem orderItem : order.getItems()) {
+				items.set(items.length(), toJson(orderItem));
+			}
+		}
+		json.put("items", items);
+
+		JsonArray historyItems = Json.createArray();
+		for (HistoryItem historyItem : history) {
+			historyItems.set(historyItems.length(), toJson(historyItem));
+		}
+		json.put("history", historyItems);
+		return json;
+	}
+
+	private static JsonObject toJson(StorefrontDate date) {
+		JsonObject json = Json.createObject();
+		if (date != null) {
+			putString(json, "day", date.getDay());
+			putString(json, "weekday", date.getWeekday());
+		}
+		return json;
+	}
+
+	private static JsonObject toJson(OrderItem orderItem) {
+		JsonObject product = Json.createObject();
+		Product itemProduct = orderItem.getProduct();
+		putString(product, "name", itemProduct == null ? null : itemProduct.getName());
+		putString(product, "formattedPrice", CURRENCY_FORMATTER.encode(orderItem.getPrice()));
+
+		JsonObject json = Json.createObject();
+		json.put("product", product);
+		putString(json, "comment", orderItem.getComment());
+		if (orderItem.getQuantity() != null) {
+			json.put("quantity", orderItem.getQuantity());
+		}
+		return json;
+	}
+
+	private static JsonObject toJson(HistoryItem historyItem) {
+		JsonObject createdBy = Json.createObject();
+		User user = historyItem.getCreatedBy();
+		putString(createdBy, "firstName", user == null ? null : user.getFirstName());
+
+		JsonObject json = Json.createObject();
+		json.put("createdBy", createdBy);
+		putString(json, "formattedTimestamp", DATE_TIME_CONVERTER.encode(historyItem.getTimestamp()));
+		putState(json, "newState", historyItem.getNewState());
+		putString(json, "message", historyItem.getMessage());
+		return json;
+	}
+
+	private static void putState(JsonObject json, String key, OrderState state) {
+		putString(json, key, state == null ? null : state.name());
+	}
+
+	private static void putString(JsonObject json, String key, String value) {
+		if (value != null) {
+			json.put(key, value);
+		}
+	}
+}
@@ -1,18 +1,18 @@
 package com.vaadin.starter.bakery.ui.views.storefront;
 
-import static com.vaadin.starter.bakery.ui.utils.FormattingUtils.HOUR_FORMATTER;
-import static com.vaadin.starter.bakery.ui.utils.FormattingUtils.MONTH_AND_DAY_FORMATTER;
-import static com.vaadin.starter.bakery.ui.utils.FormattingUtils.SHORT_DAY_FORMATTER;
-import static com.vaadin.starter.bakery.ui.utils.FormattingUtils.WEEKDAY_FULLNAME_FORMATTER;
-import static com.vaadin.starter.bakery.ui.utils.FormattingUtils.WEEK_OF_YEAR_FIELD;
-
-import java.time.LocalDate;
 import java.util.List;
 
+import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.data.renderer.LitRenderer;
+import com.vaadin.flow.function.ValueProvider;
 import com.vaadin.starter.bakery.backend.data.entity.Order;
 import com.vaadin.starter.bakery.backend.data.entity.OrderItem;
 import com.vaadin.starter.bakery.backend.data.entity.OrderSummary;
+import com.vaadin.starter.bakery.backend.data.entity.Product;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
 
 /**
  * Help class to get ready to use LitRenderer for displaying order card list on the Storefront and Dashboard grids.
@@ -22,6 +22,13 @@ import com.vaadin.starter.bakery.backend.data.entity.OrderSummary;
  * to visually separate orders into groups. Technically all order cards are
  * equivalent, but those that do have the header visible create a visual group
  * separation.
+ * <p>
+ * The dates are compared with a shared {@link OrderCardContext} and the labels
+ * come from {@link OrderCardLabels}, so creating a card does not format
+ * anything.
+ * <p>
+ * The {@code orderCard} property only carries the values the template shows,
+ * see {@link #jsonProvider(Grid)}.
  */
 public class OrderCard {
 
@@ -38,16 +45,38 @@ public class OrderCard {
 		return new OrderCard(order);
 	}
 
+	/**
+	 * Returns the value provider of the {@code orderCard} property for the
+	 * cards in the given grid.
+	 * <p>
+	 * Labels that are not shown are left out, the state is sent as the ordinal
+	 * of {@link com.vaadin.starter.bakery.backend.data.OrderState} and the items
+	 * as a flat array of product name index and quantity pairs, the names being
+	 * sent once per grid by {@link OrderCardProductNames}.
+	 */
+	public static ValueProvider<Order, JsonObject> jsonProvider(Grid<Order> grid) {
+		OrderCardProductNames productNames = new OrderCardProductNames(grid.getElement());
+		return order -> create(order).toJson(productNames);
+	}
+
 	private boolean recent, inWeek;
 
 	private final OrderSummary order;
-	
+
+	private final String time;
+
+	private final OrderCardLabels.DayLabels day;
+
 	public OrderCard(OrderSummary order) {
+		this(order, OrderCardContext.get());
+	}
+
+	OrderCard(OrderSummary order, OrderCardContext context) {
 		this.order = order;
-		LocalDate now = LocalDate.now();
-		LocalDate date = order.getDueDate();
-		recent = date.equals(now) || date.equals(now.minusDays(1));
-		inWeek = !recent && now.getYear() == date.getYear() && now.get(WEEK_OF_YEAR_FIELD) == date.get(WEEK_OF_YEAR_FIELD);
+		recent = context.isRecent(order.getDueDate());
+		inWeek = !recent && context.isInWeek(order.getDueDate());
+		time = recent || inWeek ? OrderCardLabels.time(order.getDueTime()) : null;
+		day = recent ? null : OrderCardLabels.day(order.getDueDate());
 	}
 
 	public String getPlace() {
@@ -55,23 +84,23 @@ public class OrderCard {
 	}
 
 	public String getTime() {
-		return recent ? HOUR_FORMATTER.format(order.getDueTime()) : null;
+		return recent ? time : null;
 	}
 
 	public String getShortDay() {
-		return inWeek ? SHORT_DAY_FORMATTER.format(order.getDueDate()) : null;
+		return inWeek ? day.shortDay : null;
 	}
 
 	public String getSecondaryTime() {
-		return inWeek ? HOUR_FORMATTER.format(order.getDueTime()) : null;
+		return inWeek ? time : null;
 	}
 
 	public String getMonth() {
-		return recent || inWeek ? null : MONTH_AND_DAY_FORMATTER.format(order.getDueDate());
+		return recent || inWeek ? null : day.monthAndDay;
 	}
 
 	public String getFullDay() {
-		return recent || inWeek ? null : WEEKDAY_FULLNAME_FORMATTER.format(order.getDueDate());
+		return recent || inWeek ? null : day.fullDay;
 	}
 
 	public String getState() {
@@ -85,4 +114,34 @@ public class OrderCard {
 	public List<OrderItem> getItems() {
 		return order.getItems();
 	}
+
+	JsonObject toJson(OrderCardProductNames productNames) {
+		JsonObject json = Json.createObject();
+		putString(json, "place", getPlace());
+		putString(json, "time", getTime());
+		putString(json, "shortDay", getShortDay());
+		putString(json, "secondaryTime", getSecondaryTime());
+		putString(json, "month", getMonth());
+		putString(json, "fullDay", getFullDay());
+		json.put("state", order.getState().ordinal());
+		putString(json, "fullName", getFullName());
+
+		JsonArray items = Json.createArray();
+		if (order.getItems() != null) {
+			for (OrderItem item : order.getItems()) {
+				Product product = item.getProduct();
+				String name = product == null || product.getName() == null ? "" : product.getName();
+				items.set(items.length(), productNames.indexOf(name));
+				items.set(items.length(), item.getQuantity() == null ? 0 : item.getQuantity());
+			}
+		}
+		json.put("items", items);
+		return json;
+	}
+
+	private static void putString(JsonObject json, String key, String value) {
+		if (value != null) {
+			json.put(key, value);
+		}
+	}
 }
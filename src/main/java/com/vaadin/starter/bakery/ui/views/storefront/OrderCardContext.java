@@ -0,0 +1,67 @@
+package com.vaadin.starter.bakery.ui.views.storefront;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.WeekFields;
+
+import com.vaadin.starter.bakery.ui.utils.BakeryConst;
+
+/**
+ * The dates order cards are rendered relative to: today, yesterday and the
+ * bounds of the current week.
+ * <p>
+ * The context only changes at midnight, so it is shared by all cards and UIs
+ * and renewed by the first card rendered on a new day. Checking whether it is
+ * still valid only reads the clock.
+ */
+final class OrderCardContext {
+
+	private static volatile OrderCardContext current;
+
+	private final LocalDate today;
+
+	private final LocalDate yesterday;
+
+	// Inclusive
+	private final LocalDate weekStart;
+
+	// Exclusive
+	private final LocalDate weekEnd;
+
+	private final long validUntil;
+
+	private OrderCardContext(LocalDate today, ZoneId zone) {
+		this.today = today;
+		this.yesterday = today.minusDays(1);
+		// The week of the application locale, cut at the turn of the year
+		LocalDate startOfWeek = today.with(WeekFields.of(BakeryConst.APP_LOCALE).dayOfWeek(), 1);
+		LocalDate startOfYear = today.withDayOfYear(1);
+		LocalDate startOfNextYear = startOfYear.plusYears(1);
+		this.weekStart = startOfWeek.isBefore(startOfYear) ? startOfYear : startOfWeek;
+		LocalDate endOfWeek = startOfWeek.plusWeeks(1);
+		this.weekEnd = endOfWeek.isAfter(startOfNextYear) ? startOfNextYear : endOfWeek;
+		this.validUntil = today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+	}
+
+	static OrderCardContext get() {
+		OrderCardContext context = current;
+		if (context == null || System.currentTimeMillis() >= context.validUntil) {
+			ZoneId zone = ZoneId.systemDefault();
+			context = new OrderCardContext(LocalDate.now(zone), zone);
+			current = context;
+		}
+		return context;
+	}
+
+	static OrderCardContext of(LocalDate today) {
+		return new OrderCardContext(today, ZoneId.systemDefault());
+	}
+
+	boolean isRecent(LocalDate date) {
+		return date.equals(today) || date.equals(yesterday);
+	}
+
+	boolean isInWeek(LocalDate date) {
+		return !date.isBefore(weekStart) && date.isBefore(weekEnd);
+	}
+}
@@ -3,50 +3,49 @@ package com.vaadin.starter.bakery.ui.views.storefront;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Predicate;
+import java.util.Optional;
+import java.util.function.BiFunction;
 
-import com.vaadin.starter.bakery.backend.data.entity.Order;
 import com.vaadin.starter.bakery.ui.views.storefront.beans.OrderCardHeader;
 
+/**
+ * Generates the headers shown above the first order of every due date range in
+ * the storefront grid.
+ * <p>
+ * The first order of each range is looked up once per filter, so a header is
+ * found for any order the grid renders, no matter in which order the pages are
+ * fetched. The ids are kept in a fixed size array as there are at most
+ * {@value #MAX_HEADERS} ranges.
+ */
 public class OrderCardHeaderGenerator {
 
-	private class HeaderWrapper {
-		private Predicate<LocalDate> matcher;
+	private static class HeaderRange {
+		// Inclusive, null when unbounded
+		private final LocalDate from;
 
-		private OrderCardHeader header;
+		// Exclusive, null when unbounded
+		private final LocalDate to;
 
-		private Long selected;
+		private final OrderCardHeader header;
 
-		public HeaderWrapper(Predicate<LocalDate> matcher, OrderCardHeader header) {
-			this.matcher = matcher;
+		public HeaderRange(LocalDate from, LocalDate to, OrderCardHeader header) {
+			this.from = from;
+			this.to = to;
 			this.header = header;
 		}
+	}
 
-		public boolean matches(LocalDate date) {
-			return matcher.test(date);
-		}
-
-		public Long getSelected() {
-			return selected;
-		}
-
-		public void setSelected(Long selected) {
-			this.selected = selected;
-		}
+	private static final int MAX_HEADERS = 6;
 
-		public OrderCardHeader getHeader() {
-			return header;
-		}
-	}
+	private static final long NO_ORDER = -1;
 
 	private final DateTimeFormatter HEADER_DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("EEE, MMM d");
 
-	private final Map<Long, OrderCardHeader> ordersWithHeaders = new HashMap<>();
-	private List<HeaderWrapper> headerChain = new ArrayList<>();
+	private final long[] firstOrderIds = new long[MAX_HEADERS];
+	private final OrderCardHeader[] headers = new OrderCardHeader[MAX_HEADERS];
+	private int headerCount;
 
 	private OrderCardHeader getRecentHeader() {
 		return new OrderCardHeader("Recent", "Before this week");
@@ -90,56 +89,66 @@ public class OrderCardHeaderGenerator {
 	}
 
 	public OrderCardHeader get(Long id) {
-		return ordersWithHeaders.get(id);
-	}
-
-	public void resetHeaderChain(boolean showPrevious) {
-		this.headerChain = createHeaderChain(showPrevious);
-		ordersWithHeaders.clear();
-	}
-
-	public void ordersRead(List<Order> orders) {
-		Iterator<HeaderWrapper> headerIterator = headerChain.stream().filter(h -> h.getSelected() == null).iterator();
-		if (!headerIterator.hasNext()) {
-			return;
+		if (id == null) {
+			return null;
 		}
-
-		HeaderWrapper current = headerIterator.next();
-		for (Order order : orders) {
-			// If last selected, discard orders that match it.
-			if (current.getSelected() != null && current.matches(order.getDueDate())) {
-				continue;
+		for (int i = 0; i < headerCount; i++) {
+			if (firstOrderIds[i] == id) {
+				return headers[i];
 			}
-			while (current != null && !current.matches(order.getDueDate())) {
-				current = headerIterator.hasNext() ? headerIterator.next() : null;
-			}
-			if (current == null) {
-				break;
+		}
+		return null;
+	}
+
+	/**
+	 * Looks up the first order of every due date range.
+	 *
+	 * @param showPrevious
+	 *            whether the ranges before today are shown
+	 * @param firstOrderFinder
+	 *            finds the id of the first order, in the grid order, that is
+	 *            due on or after the first date and before the second one,
+	 *            either date is null when the range is unbounded
+	 * @return whether a header has moved to another order
+	 */
+	public boolean resetHeaderChain(boolean showPrevious,
+			BiFunction<LocalDate, LocalDate, Optional<Long>> firstOrderFinder) {
+		long[] previousIds = Arrays.copyOf(firstOrderIds, headerCount);
+		headerCount = 0;
+		for (HeaderRange range : createHeaderChain(showPrevious)) {
+			Optional<Long> id = firstOrderFinder.apply(range.from, range.to);
+			if (id.isPresent()) {
+				firstOrderIds[headerCount] = id.get();
+				headers[headerCount] = range.header;
+				headerCount++;
 			}
-			current.setSelected(order.getId());
-			ordersWithHeaders.put(order.getId(), current.getHeader());
 		}
+		Arrays.fill(firstOrderIds, headerCount, MAX_HEADERS, NO_ORDER);
+		Arrays.fill(headers, headerCount, MAX_HEADERS, null);
+		return !Arrays.equals(previousIds, Arrays.copyOf(firstOrderIds, headerCount));
 	}
 
-	private List<HeaderWrapper> createHeaderChain(boolean showPrevious) {
-		List<HeaderWrapper> headerChain = new ArrayList<>();
+	private List<HeaderRange> createHeaderChain(boolean showPrevious) {
+		List<HeaderRange> headerChain = new ArrayList<>();
 		LocalDate today = LocalDate.now();
+		LocalDate tomorrow = today.plusDays(1);
+		// Week starting on Monday
 		LocalDate startOfTheWeek = today.minusDays(today.getDayOfWeek().getValue() - 1);
 		if (showPrevious) {
 			LocalDate yesterday = today.minusDays(1);
-			// Week starting on Monday
-			headerChain.add(new HeaderWrapper(d -> d.isBefore(startOfTheWeek), this.getRecentHeader()));
+			headerChain.add(new HeaderRange(null, startOfTheWeek, this.getRecentHeader()));
 			if (startOfTheWeek.isBefore(yesterday)) {
-				headerChain.add(new HeaderWrapper(d -> d.isBefore(yesterday) && !d.isAfter(startOfTheWeek),
-						this.getThisWeekBeforeYesterdayHeader()));
+				headerChain.add(
+						new HeaderRange(startOfTheWeek, yesterday, this.getThisWeekBeforeYesterdayHeader()));
 			}
-			headerChain.add(new HeaderWrapper(yesterday::equals, this.getYesterdayHeader()));
+			headerChain.add(new HeaderRange(yesterday, today, this.getYesterdayHeader()));
 		}
 		LocalDate firstDayOfTheNextWeek = startOfTheWeek.plusDays(7);
-		headerChain.add(new HeaderWrapper(today::equals, getTodayHeader()));
-		headerChain.add(new HeaderWrapper(d -> d.isAfter(today) && d.isBefore(firstDayOfTheNextWeek),
-				getThisWeekStartingTomorrow(showPrevious)));
-		headerChain.add(new HeaderWrapper(d -> !d.isBefore(firstDayOfTheNextWeek), getUpcomingHeader()));
+		headerChain.add(new HeaderRange(today, tomorrow, getTodayHeader()));
+		if (tomorrow.isBefore(firstDayOfTheNextWeek)) {
+			headerChain.add(new HeaderRange(tomorrow, firstDayOfTheNextWeek, getThisWeekStartingTomorrow(showPrevious)));
+		}
+		headerChain.add(new HeaderRange(firstDayOfTheNextWeek, null, getUpcomingHeader()));
 		return headerChain;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package com.vaadin.starter.bakery.ui.views.storefront;
+
+import static com.vaadin.starter.bakery.ui.utils.FormattingUtils.HOUR_FORMATTER;
+import static com.vaadin.starter.bakery.ui.utils.FormattingUtils.MONTH_AND_DAY_FORMATTER;
+import static com.vaadin.starter.bakery.ui.utils.FormattingUtils.SHORT_DAY_FORMATTER;
+import static com.vaadin.starter.bakery.ui.utils.FormattingUtils.WEEKDAY_FULLNAME_FORMATTER;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The formatted due dates and times shown on order cards.
+ * <p>
+ * Orders are due on a few hundred distinct days and at a handful of times, so
+ * the labels are formatted once and shared by all cards. Each cache is simply
+ * dropped when it is full, which only happens when browsing through years of
+ * orders.
+ */
+final class OrderCardLabels {
+
+	static final class DayLabels {
+		final String shortDay;
+
+		final String monthAndDay;
+
+		final String fullDay;
+
+		private DayLabels(LocalDate date) {
+			shortDay = SHORT_DAY_FORMATTER.format(date);
+			monthAndDay = MONTH_AND_DAY_FORMATTER.format(date);
+			fullDay = WEEKDAY_FULLNAME_FORMATTER.format(date);
+		}
+	}
+
+	private static final int MAX_DAYS = 2000;
+
+	private static final int MAX_TIMES = 1440;
+
+	private static final ConcurrentMap<LocalDate, DayLabels> days = new ConcurrentHashMap<>();
+
+	private static final ConcurrentMap<LocalTime, String> times = new ConcurrentHashMap<>();
+
+	private OrderCardLabels() {
+	}
+
+	static DayLabels day(LocalDate date) {
+		DayLabels labels = days.get(date);
+		if (labels == null) {
+			if (days.size() >= MAX_DAYS) {
+				days.clear();
+			}
+			labels = days.computeIfAbsent(date, DayLabels::new);
+		}
+		return labels;
+	}
+
+	static String time(LocalTime time) {
+		String label = times.get(time);
+		if (label == null) {
+			if (times.size() >= MAX_TIMES) {
+				times.clear();
+			}
+			label = times.computeIfAbsent(time, HOUR_FORMATTER::format);
+		}
+		return label;
+	}
+}
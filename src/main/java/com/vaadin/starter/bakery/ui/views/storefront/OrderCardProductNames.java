@@ -0,0 +1,52 @@
+package com.vaadin.starter.bakery.ui.views.storefront;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.vaadin.flow.dom.Element;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+
+/**
+ * The product names of the order cards in one grid.
+ * <p>
+ * Cards refer to products by their index in the {@code productNames} property
+ * of the grid element, so every name is sent to the client only once per grid
+ * instead of once per order item. The property is replaced whenever a card
+ * brings up a new name. As the grid data is sent after the element properties
+ * of the same response, the names are always known when the cards render.
+ */
+final class OrderCardProductNames implements Serializable {
+
+	static final String PROPERTY = "productNames";
+
+	private final Element grid;
+
+	private final Map<String, Integer> indexes = new HashMap<>();
+
+	private final List<String> names = new ArrayList<>();
+
+	OrderCardProductNames(Element grid) {
+		this.grid = grid;
+	}
+
+	int indexOf(String name) {
+		Integer index = indexes.get(name);
+		if (index == null) {
+			index = names.size();
+			indexes.put(name, index);
+			names.add(name);
+			// A new array, as setting the same instance again is not a change
+			JsonArray json = Json.createArray();
+			for (String each : names) {
+				json.set(json.length(), each);
+			}
+			grid.setPropertyJson(PROPERTY, json);
+		}
+		return index;
+	}
+}
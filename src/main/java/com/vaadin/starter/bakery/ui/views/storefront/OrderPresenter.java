@@ -26,6 +26,7 @@ import static com.vaadin.starter.bakery.ui.utils.BakeryConst.PAGE_STOREFRONT_ORD
 public class OrderPresenter {
 
 	private OrderCardHeaderGenerator headersGenerator;
+	private OrderFilter filter = OrderFilter.getEmptyFilter();
 	private StorefrontView view;
 
 	private final EntityPresenter<Order, StorefrontView> entityPresenter;
@@ -41,14 +42,14 @@ public class OrderPresenter {
 		this.dataProvider = dataProvider;
 		this.currentUser = currentUser;
 		headersGenerator = new OrderCardHeaderGenerator();
-		headersGenerator.resetHeaderChain(false);
-		dataProvider.setPageObserver(p -> headersGenerator.ordersRead(p.getContent()));
+		resetHeaders();
 	}
 
 	void init(StorefrontView view) {
 		this.entityPresenter.setView(view);
 		this.view = view;
 		view.getGrid().setDataProvider(dataProvider);
+		dataProvider.estimateItemCount(view.getGrid().getLazyDataView());
 		view.getOpenedOrderEditor().setCurrentUser(currentUser.getUser());
 		view.getOpenedOrderEditor().addCancelListener(e -> cancel());
 		view.getOpenedOrderEditor().addReviewListener(e -> review());
@@ -64,8 +65,15 @@ public class OrderPresenter {
 	}
 
 	public void filterChanged(String filter, boolean showPrevious) {
-		headersGenerator.resetHeaderChain(showPrevious);
-		dataProvider.setFilter(new OrderFilter(filter, showPrevious));
+		this.filter = new OrderFilter(filter, showPrevious);
+		resetHeaders();
+		dataProvider.setFilter(this.filter);
+		dataProvider.estimateItemCount(view.getGrid().getLazyDataView());
+	}
+
+	private boolean resetHeaders() {
+		return headersGenerator.resetHeaderChain(filter.isShowPrevious(),
+				(from, to) -> dataProvider.findFirstOrderId(filter, from, to));
 	}
 
 	void onNavigation(Long id, boolean edit) {
@@ -102,7 +110,8 @@ public class OrderPresenter {
 		if (fields.isEmpty()) {
 			if (entityPresenter.writeEntity()) {
 				view.setDialogElementsVisibility(false);
-				view.getOpenedOrderDetails().display(entityPresenter.getEntity(), true);
+				view.getOpenedOrderDetails().display(entityPresenter.getEntity(),
+						orderService.findLatestHistory(entityPresenter.getEntity()), true);
 			}
 		} else if (fields.get(0) instanceof Focusable) {
 			((Focusable<?>) fields.get(0)).focus();
@@ -111,12 +120,18 @@ public class OrderPresenter {
 
 	void save() {
 		entityPresenter.save(e -> {
+			// A new or rescheduled order may now be the first one under a header
+			boolean headersMoved = resetHeaders();
 			if (entityPresenter.isNew()) {
 				view.showCreatedNotification();
 				dataProvider.refreshAll();
 			} else {
 				view.showUpdatedNotification();
-				dataProvider.refreshItem(e);
+				if (headersMoved) {
+					dataProvider.refreshAll();
+				} else {
+					dataProvider.refreshItem(e);
+				}
 			}
 			close();
 		});
@@ -137,7 +152,7 @@ public class OrderPresenter {
 		if (edit) {
 			view.getOpenedOrderEditor().read(order, entityPresenter.isNew());
 		} else {
-			view.getOpenedOrderDetails().display(order, false);
+			view.getOpenedOrderDetails().display(order, orderService.findLatestHistory(order), false);
 		}
 	}
 
@@ -75,7 +75,7 @@ public class StorefrontView extends LitTemplate
 		grid.setSelectionMode(Grid.SelectionMode.NONE);
 
 		grid.addColumn(OrderCard.getTemplate()
-				.withProperty("orderCard", OrderCard::create)
+				.withProperty("orderCard", OrderCard.jsonProvider(grid))
 				.withProperty("header", order -> presenter.getHeaderByOrderId(order.getId()))
 				.withFunction("cardClick",
 						order -> UI.getCurrent().navigate(BakeryConst.PAGE_STOREFRONT + "/" + order.getId())));
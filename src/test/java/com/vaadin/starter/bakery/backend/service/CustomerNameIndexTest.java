@@ -0,0 +1,155 @@
+package com.vaadin.starter.bakery.backend.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.vaadin.starter.bakery.backend.data.entity.Order;
+import com.vaadin.starter.bakery.backend.data.entity.User;
+import com.vaadin.starter.bakery.backend.repositories.OrderRepository;
+import com.vaadin.starter.bakery.test.FakeOrderRepository;
+import com.vaadin.starter.bakery.test.TestEntities;
+
+/**
+ * Compares the results of the index with a plain case-insensitive contains
+ * over the same orders.
+ */
+public class CustomerNameIndexTest {
+
+	private static final LocalDate TODAY = LocalDate.of(2025, 6, 11);
+
+	private final List<Order> orders = new ArrayList<>();
+
+	private CustomerNameIndex index;
+
+	@BeforeEach
+	public void setUp() {
+		order(1L, "Mary Jones", TODAY.minusDays(3));
+		order(2L, "mary jones", TODAY);
+		order(3L, "Marylou Anderson", TODAY.plusDays(1));
+		order(4L, "Jack Sparrow", TODAY.plusDays(5));
+		order(5L, "Anna Karenina", TODAY.minusDays(1));
+		order(6L, "DAN ARMAN", TODAY.plusDays(2));
+		index = new CustomerNameIndex(repository());
+	}
+
+	@Test
+	public void shortQueries() {
+		for (String query : new String[] { "", "a", "A", "an", "ry", "z" }) {
+			assertMatchesContains(query, Optional.empty());
+		}
+	}
+
+	@Test
+	public void ignoresCase() {
+		for (String query : new String[] { "mary", "MARY", "mArY jOnEs", "ARMAN", "sparrow" }) {
+			assertMatchesContains(query, Optional.empty());
+		}
+		Assertions.assertEquals(List.of(1L, 2L, 3L), find("MaRy", Optional.empty()));
+	}
+
+	@Test
+	public void dueDateCutoff() {
+		for (String query : new String[] { "a", "mary", "an", "jones" }) {
+			assertMatchesContains(query, Optional.of(TODAY.minusDays(1)));
+			assertMatchesContains(query, Optional.of(TODAY));
+		}
+		// Only orders due after the date match
+		Assertions.assertEquals(List.of(3L), find("mary", Optional.of(TODAY)));
+	}
+
+	@Test
+	public void everySubstringOfTheNames() {
+		for (Order order : orders) {
+			String name = order.getCustomer().getFullName();
+			for (int length = 1; length <= 5; length++) {
+				for (int i = 0; i + length <= name.length(); i++) {
+					assertMatchesContains(name.substring(i, i + length), Optional.empty());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void updateAfterRename() {
+		Assertions.assertEquals(List.of(4L), find("sparrow", Optional.empty()));
+
+		Order order = orders.get(3);
+		order.getCustomer().setFullName("Jack Black");
+		index.update(order);
+
+		Assertions.assertEquals(List.of(), find("sparrow", Optional.empty()));
+		Assertions.assertEquals(List.of(), find("rro", Optional.empty()));
+		Assertions.assertEquals(List.of(4L), find("black", Optional.empty()));
+		assertMatchesContains("ack", Optional.empty());
+
+		// A rename of one of several orders with the same name keeps the others
+		order = orders.get(0);
+		order.getCustomer().setFullName("Mary Smith");
+		index.update(order);
+		Assertions.assertEquals(List.of(2L), find("jones", Optional.empty()));
+		assertMatchesContains("mary", Optional.empty());
+	}
+
+	@Test
+	public void updateAfterDueDateChange() {
+		Assertions.assertEquals(List.of(3L), find("mary", Optional.of(TODAY)));
+
+		Order order = orders.get(0);
+		order.setDueDate(TODAY.plusDays(7));
+		index.update(order);
+
+		assertMatchesContains("mary", Optional.of(TODAY));
+		Assertions.assertEquals(List.of(1L, 3L), find("mary", Optional.of(TODAY)));
+	}
+
+	@Test
+	public void remove() {
+		Assertions.assertEquals(List.of(6L), find("arman", Optional.empty()));
+
+		Order order = orders.remove(5);
+		index.remove(order);
+
+		Assertions.assertEquals(List.of(), find("arman", Optional.empty()));
+		assertMatchesContains("an", Optional.empty());
+	}
+
+	private void assertMatchesContains(String query, Optional<LocalDate> dueDateAfter) {
+		String lowerCaseQuery = query.toLowerCase(Locale.ROOT);
+		List<Long> expected = orders.stream()
+				.filter(order -> order.getCustomer().getFullName().toLowerCase(Locale.ROOT).contains(lowerCaseQuery))
+				.filter(order -> dueDateAfter.isEmpty() || order.getDueDate().isAfter(dueDateAfter.get()))
+				.map(Order::getId).sorted().collect(Collectors.toList());
+		Assertions.assertEquals(expected, find(query, dueDateAfter), query + " after " + dueDateAfter);
+	}
+
+	private List<Long> find(String query, Optional<LocalDate> dueDateAfter) {
+		return index.findOrderIds(query, dueDateAfter).stream().sorted().collect(Collectors.toList());
+	}
+
+	/**
+	 * Answers the query the index is built from with the orders of this test.
+	 */
+	private OrderRepository repository() {
+		return FakeOrderRepository.answering(Map.of("findCustomerNames",
+				() -> orders.stream()
+						.map(order -> new Object[] { order.getId(), order.getCustomer().getFullName(),
+								order.getDueDate() })
+						.collect(Collectors.toList())));
+	}
+
+	private void order(Long id, String customerName, LocalDate dueDate) {
+		Order order = TestEntities.withId(new Order(new User()), id);
+		order.getCustomer().setFullName(customerName);
+		order.setDueDate(dueDate);
+		orders.add(order);
+	}
+}
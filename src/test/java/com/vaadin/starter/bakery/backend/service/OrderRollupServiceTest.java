@@ -0,0 +1,242 @@
+package com.vaadin.starter.bakery.backend.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.vaadin.starter.bakery.backend.data.OrderState;
+import com.vaadin.starter.bakery.backend.data.entity.Order;
+import com.vaadin.starter.bakery.backend.data.entity.OrderItem;
+import com.vaadin.starter.bakery.backend.data.entity.Product;
+import com.vaadin.starter.bakery.backend.data.entity.User;
+import com.vaadin.starter.bakery.backend.repositories.OrderRepository;
+import com.vaadin.starter.bakery.backend.service.OrderRollupService.Contribution;
+import com.vaadin.starter.bakery.test.FakeOrderRepository;
+import com.vaadin.starter.bakery.test.TestEntities;
+
+/**
+ * Checks that updating the rollup gives the same figures as building it again
+ * from the changed orders.
+ */
+public class OrderRollupServiceTest {
+
+	private static final int YEAR = 2025;
+
+	private static final LocalDate JUNE_10 = LocalDate.of(YEAR, 6, 10);
+
+	private static final LocalDate JUNE_20 = LocalDate.of(YEAR, 6, 20);
+
+	private static final LocalDate JULY_3 = LocalDate.of(YEAR, 7, 3);
+
+	private final User user = new User();
+
+	private final List<Order> orders = new ArrayList<>();
+
+	private Product bun;
+
+	private Product pie;
+
+	private OrderRollupService rollup;
+
+	@BeforeEach
+	public void setUp() {
+		bun = product(1L, "Strawberry Bun", 150);
+		pie = product(2L, "Apple Pie", 900);
+		orders.add(order(JUNE_10, OrderState.NEW, item(bun, 2), item(pie, 1)));
+		orders.add(order(JUNE_10, OrderState.READY, item(bun, 4)));
+		orders.add(order(JUNE_20, OrderState.NEW, item(pie, 3)));
+		orders.add(order(JULY_3, OrderState.DELIVERED, item(bun, 1), item(pie, 1)));
+
+		rollup = new OrderRollupService(repository());
+		// The rollup ignores updates until it has been built
+		Assertions.assertEquals(2, rollup.countByState(OrderState.NEW));
+	}
+
+	@Test
+	public void stateChange() {
+		Order order = orders.get(0);
+		Contribution before = Contribution.of(order);
+		order.changeState(user, OrderState.READY);
+		rollup.update(before, Contribution.of(order));
+
+		assertMatchesRecount();
+		Assertions.assertEquals(1, rollup.countByState(OrderState.NEW));
+		Assertions.assertEquals(2, rollup.countByDueDateAndStateIn(JUNE_10, List.of(OrderState.READY)));
+	}
+
+	@Test
+	public void dueDateMove() {
+		Order order = orders.get(2);
+		Contribution before = Contribution.of(order);
+		order.setDueDate(JULY_3);
+		rollup.update(before, Contribution.of(order));
+
+		assertMatchesRecount();
+		Assertions.assertEquals(0, rollup.countByDueDate(JUNE_20));
+		Assertions.assertEquals(2, rollup.countByDueDate(JULY_3));
+	}
+
+	@Test
+	public void itemQuantityChange() {
+		Order order = orders.get(0);
+		Contribution before = Contribution.of(order);
+		order.getItems().get(0).setQuantity(5);
+		order.updateTotalPrice();
+		rollup.update(before, Contribution.of(order));
+
+		assertMatchesRecount();
+		Assertions.assertEquals(Integer.valueOf(5),
+				rollup.countPerProduct(OrderState.NEW, YEAR, 6).get(bun.getId()));
+	}
+
+	@Test
+	public void delete() {
+		Order order = orders.remove(3);
+		rollup.update(Contribution.of(order), null);
+
+		assertMatchesRecount();
+		Assertions.assertEquals(0, rollup.countByState(OrderState.DELIVERED));
+		Assertions.assertTrue(rollup.countPerProduct(OrderState.DELIVERED, YEAR, 7).isEmpty());
+	}
+
+	@Test
+	public void create() {
+		Order order = order(JUNE_20, OrderState.PROBLEM, item(bun, 7));
+		orders.add(order);
+		rollup.update(null, Contribution.of(order));
+
+		assertMatchesRecount();
+	}
+
+	@Test
+	public void rebuildBetweenCommitAndAfterCommit() {
+		Order order = orders.get(0);
+		Contribution before = Contribution.of(order);
+		order.changeState(user, OrderState.CANCELLED);
+		List<TransactionSynchronization> synchronizations = inTransaction(
+				() -> rollup.update(before, Contribution.of(order)));
+		synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+		// The rebuild already sees the committed change
+		rollup.invalidate();
+		Assertions.assertEquals(1, rollup.countByState(OrderState.CANCELLED));
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+		assertMatchesRecount();
+	}
+
+	@Test
+	public void updateAfterCommit() {
+		Order order = orders.get(1);
+		Contribution before = Contribution.of(order);
+		order.changeState(user, OrderState.DELIVERED);
+		List<TransactionSynchronization> synchronizations = inTransaction(
+				() -> rollup.update(before, Contribution.of(order)));
+		synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+		assertMatchesRecount();
+		Assertions.assertEquals(2, rollup.countByState(OrderState.DELIVERED));
+	}
+
+	/**
+	 * Runs the given code with transaction synchronization active and returns the
+	 * synchronizations it registered, for the test to complete.
+	 */
+	private static List<TransactionSynchronization> inTransaction(Runnable code) {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			code.run();
+			return TransactionSynchronizationManager.getSynchronizations();
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	private void assertMatchesRecount() {
+		OrderRollupService recount = new OrderRollupService(repository());
+		Assertions.assertEquals(figures(recount), figures(rollup));
+	}
+
+	private static Map<String, Object> figures(OrderRollupService rollup) {
+		Map<String, Object> figures = new TreeMap<>();
+		for (OrderState state : OrderState.values()) {
+			figures.put(state + " state", rollup.countByState(state));
+			figures.put(state + " per month", Arrays.toString(rollup.countPerMonth(state, YEAR)));
+			figures.put(state + " sales", Arrays.toString(rollup.sumPerMonth(state, YEAR)));
+			for (int month : new int[] { 6, 7 }) {
+				figures.put(state + " per day " + month, Arrays.toString(rollup.countPerDay(state, YEAR, month)));
+				figures.put(state + " per product " + month, rollup.countPerProduct(state, YEAR, month));
+			}
+		}
+		for (LocalDate date : new LocalDate[] { JUNE_10, JUNE_20, JULY_3 }) {
+			figures.put(date + " orders", rollup.countByDueDate(date));
+		}
+		return figures;
+	}
+
+	/**
+	 * Answers the queries the rollup is built from by aggregating the orders of
+	 * this test.
+	 */
+	private OrderRepository repository() {
+		return FakeOrderRepository.answering(Map.of("countAndSumPerDueDateAndState",
+				this::countAndSumPerDueDateAndState, "sumPerDueDateStateAndProduct",
+				this::sumPerDueDateStateAndProduct));
+	}
+
+	private List<Object[]> countAndSumPerDueDateAndState() {
+		Map<String, Object[]> rows = new TreeMap<>();
+		for (Order order : orders) {
+			Object[] row = rows.computeIfAbsent(order.getDueDate() + " " + order.getState(),
+					key -> new Object[] { order.getDueDate(), order.getState(), 0L, 0L });
+			row[2] = (Long) row[2] + 1;
+			row[3] = (Long) row[3] + order.getTotalPrice();
+		}
+		return new ArrayList<>(rows.values());
+	}
+
+	private List<Object[]> sumPerDueDateStateAndProduct() {
+		Map<String, Object[]> rows = new TreeMap<>();
+		for (Order order : orders) {
+			for (OrderItem item : order.getItems()) {
+				Long productId = item.getProduct().getId();
+				Object[] row = rows.computeIfAbsent(order.getDueDate() + " " + order.getState() + " " + productId,
+						key -> new Object[] { order.getDueDate(), order.getState(), productId, 0L });
+				row[3] = (Long) row[3] + item.getQuantity();
+			}
+		}
+		return new ArrayList<>(rows.values());
+	}
+
+	private Order order(LocalDate dueDate, OrderState state, OrderItem... items) {
+		Order order = new Order(user);
+		order.setDueDate(dueDate);
+		order.changeState(user, state);
+		order.setItems(new ArrayList<>(List.of(items)));
+		order.updateTotalPrice();
+		return order;
+	}
+
+	private static OrderItem item(Product product, int quantity) {
+		OrderItem item = new OrderItem();
+		item.setProduct(product);
+		item.setQuantity(quantity);
+		return item;
+	}
+
+	private static Product product(Long id, String name, int price) {
+		Product product = TestEntities.withId(new Product(), id);
+		product.setName(name);
+		product.setPrice(price);
+		return product;
+	}
+}
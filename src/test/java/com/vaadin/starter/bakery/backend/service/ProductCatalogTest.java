@@ -0,0 +1,48 @@
+package com.vaadin.starter.bakery.backend.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.vaadin.starter.bakery.backend.data.entity.Product;
+
+public class ProductCatalogTest {
+
+	private final ProductCatalog.Snapshot snapshot = new ProductCatalog.Snapshot(
+			products("Strawberry Bun", "apple pie", "Blueberry Cheese Cake", "Bun Bun"));
+
+	@Test
+	public void emptyFilterReturnsAllProductsByName() {
+		Assertions.assertEquals(Arrays.asList("apple pie", "Blueberry Cheese Cake", "Bun Bun", "Strawberry Bun"),
+				names(snapshot.filter("")));
+		Assertions.assertEquals(4, snapshot.count(null));
+	}
+
+	@Test
+	public void prefixMatchesComeFirst() {
+		Assertions.assertEquals(Arrays.asList("Bun Bun", "Strawberry Bun"), names(snapshot.filter("bUN")));
+		Assertions.assertEquals(2, snapshot.count("bUN"));
+	}
+
+	@Test
+	public void substringMatchesIgnoreCase() {
+		Assertions.assertEquals(Arrays.asList("apple pie", "Blueberry Cheese Cake", "Strawberry Bun"),
+				names(snapshot.filter("E")));
+		Assertions.assertEquals(0, snapshot.count("cookie"));
+	}
+
+	private static List<Product> products(String... names) {
+		return Arrays.stream(names).map(name -> {
+			Product product = new Product();
+			product.setName(name);
+			return product;
+		}).collect(Collectors.toList());
+	}
+
+	private static List<String> names(List<Product> products) {
+		return products.stream().map(Product::getName).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,33 @@
+package com.vaadin.starter.bakery.test;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.vaadin.starter.bakery.backend.repositories.OrderRepository;
+
+/**
+ * An {@link OrderRepository} that answers a few parameterless queries and
+ * fails on everything else.
+ */
+public final class FakeOrderRepository {
+
+	private FakeOrderRepository() {
+		// Static methods and fields only
+	}
+
+	/**
+	 * Returns a repository that answers each query named in the map with the
+	 * result of its supplier.
+	 */
+	public static OrderRepository answering(Map<String, Supplier<?>> answers) {
+		return (OrderRepository) Proxy.newProxyInstance(FakeOrderRepository.class.getClassLoader(),
+				new Class<?>[] { OrderRepository.class }, (proxy, method, args) -> {
+					Supplier<?> answer = answers.get(method.getName());
+					if (answer == null) {
+						throw new UnsupportedOperationException(method.getName());
+					}
+					return answer.get();
+				});
+	}
+}
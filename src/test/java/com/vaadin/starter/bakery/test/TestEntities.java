@@ -0,0 +1,29 @@
+package com.vaadin.starter.bakery.test;
+
+import java.lang.reflect.Field;
+
+import com.vaadin.starter.bakery.backend.data.entity.AbstractEntity;
+
+/**
+ * Helpers for building entities outside of JPA in tests and benchmarks.
+ */
+public final class TestEntities {
+
+	private TestEntities() {
+		// Static methods and fields only
+	}
+
+	/**
+	 * Sets the id that JPA would otherwise generate and returns the entity.
+	 */
+	public static <T extends AbstractEntity> T withId(T entity, Long id) {
+		try {
+			Field field = AbstractEntity.class.getDeclaredField("id");
+			field.setAccessible(true);
+			field.set(entity, id);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException(e);
+		}
+		return entity;
+	}
+}
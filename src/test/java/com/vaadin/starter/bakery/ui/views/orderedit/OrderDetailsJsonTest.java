@@ -0,0 +1,59 @@
+package com.vaadin.starter.bakery.ui.views.orderedit;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.vaadin.starter.bakery.backend.data.entity.Order;
+import com.vaadin.starter.bakery.backend.data.entity.OrderItem;
+import com.vaadin.starter.bakery.backend.data.entity.Product;
+import com.vaadin.starter.bakery.backend.data.entity.User;
+import com.vaadin.starter.bakery.test.FormattingTest;
+
+import elemental.json.JsonObject;
+
+public class OrderDetailsJsonTest extends FormattingTest {
+
+	@Test
+	public void writesTheValuesShownByTheTemplate() {
+		User user = new User();
+		user.setFirstName("Malin");
+		Order order = new Order(user);
+		order.setDueDate(LocalDate.of(2017, 8, 22));
+		order.setDueTime(LocalTime.of(14, 30));
+		order.getCustomer().setFullName("Jane Doe");
+
+		Product product = new Product();
+		product.setName("Strawberry Bun");
+		product.setPrice(150);
+		OrderItem item = new OrderItem();
+		item.setProduct(product);
+		item.setQuantity(2);
+		order.setItems(List.of(item));
+
+		// The item keeps the price it was ordered with
+		product.setPrice(999);
+
+		JsonObject json = OrderDetailsJson.toJson(order, order.getNewHistoryItems());
+		Assertions.assertEquals("NEW", json.getString("state"));
+		Assertions.assertEquals("Aug 22", json.getObject("formattedDueDate").getString("day"));
+		Assertions.assertEquals("Tuesday", json.getObject("formattedDueDate").getString("weekday"));
+		Assertions.assertEquals("2:30 PM", json.getString("formattedDueTime"));
+		Assertions.assertEquals("$3.00", json.getString("formattedTotalPrice"));
+		Assertions.assertEquals("Jane Doe", json.getObject("customer").getString("fullName"));
+		Assertions.assertFalse(json.getObject("customer").hasKey("details"));
+
+		JsonObject jsonItem = json.getArray("items").getObject(0);
+		Assertions.assertEquals("Strawberry Bun", jsonItem.getObject("product").getString("name"));
+		Assertions.assertEquals("$1.50", jsonItem.getObject("product").getString("formattedPrice"));
+		Assertions.assertEquals(2, (int) jsonItem.getNumber("quantity"));
+
+		JsonObject historyItem = json.getArray("history").getObject(0);
+		Assertions.assertEquals("Malin", historyItem.getObject("createdBy").getString("firstName"));
+		Assertions.assertEquals("NEW", historyItem.getString("newState"));
+		Assertions.assertEquals("Order placed", historyItem.getString("message"));
+	}
+}
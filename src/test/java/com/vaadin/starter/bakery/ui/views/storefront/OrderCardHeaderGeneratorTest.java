@@ -0,0 +1,65 @@
+package com.vaadin.starter.bakery.ui.views.storefront;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class OrderCardHeaderGeneratorTest {
+
+	private final LocalDate today = LocalDate.now();
+
+	// Order ids and due dates, in the grid order
+	private final Map<Long, LocalDate> orders = new LinkedHashMap<>();
+
+	private Optional<Long> firstOrderId(LocalDate from, LocalDate to) {
+		return orders.entrySet().stream()
+				.filter(e -> (from == null || !e.getValue().isBefore(from)) && (to == null || e.getValue().isBefore(to)))
+				.map(Map.Entry::getKey).findFirst();
+	}
+
+	@Test
+	public void findsTheHeaderOfAnyOrder() {
+		orders.put(1L, today.minusDays(30));
+		orders.put(2L, today);
+		orders.put(3L, today);
+		orders.put(4L, today.plusDays(10));
+		orders.put(5L, today.plusDays(20));
+
+		OrderCardHeaderGenerator generator = new OrderCardHeaderGenerator();
+		Assertions.assertTrue(generator.resetHeaderChain(true, this::firstOrderId));
+
+		// The last orders are looked up first, as when the grid jumps to the end
+		Assertions.assertNull(generator.get(5L));
+		Assertions.assertEquals("Upcoming", generator.get(4L).getMain());
+		Assertions.assertNull(generator.get(3L));
+		Assertions.assertEquals("Today", generator.get(2L).getMain());
+		Assertions.assertEquals("Recent", generator.get(1L).getMain());
+		Assertions.assertNull(generator.get(null));
+
+		Assertions.assertFalse(generator.resetHeaderChain(true, this::firstOrderId));
+
+		Assertions.assertTrue(generator.resetHeaderChain(false, this::firstOrderId));
+		Assertions.assertNull(generator.get(1L));
+		Assertions.assertEquals("Today", generator.get(2L).getMain());
+	}
+
+	@Test
+	public void movesTheHeaderToARescheduledOrder() {
+		orders.put(1L, today);
+		orders.put(2L, today.plusDays(10));
+		orders.put(3L, today.plusDays(20));
+
+		OrderCardHeaderGenerator generator = new OrderCardHeaderGenerator();
+		generator.resetHeaderChain(false, this::firstOrderId);
+		Assertions.assertEquals("Upcoming", generator.get(2L).getMain());
+
+		orders.put(2L, today);
+		Assertions.assertTrue(generator.resetHeaderChain(false, this::firstOrderId));
+		Assertions.assertNull(generator.get(2L));
+		Assertions.assertEquals("Upcoming", generator.get(3L).getMain());
+	}
+}
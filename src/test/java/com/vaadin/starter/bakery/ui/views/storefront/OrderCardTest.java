@@ -0,0 +1,111 @@
+package com.vaadin.starter.bakery.ui.views.storefront;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.vaadin.flow.dom.Element;
+import com.vaadin.starter.bakery.backend.data.OrderState;
+import com.vaadin.starter.bakery.backend.data.entity.Order;
+import com.vaadin.starter.bakery.backend.data.entity.OrderItem;
+import com.vaadin.starter.bakery.backend.data.entity.PickupLocation;
+import com.vaadin.starter.bakery.backend.data.entity.Product;
+import com.vaadin.starter.bakery.backend.data.entity.User;
+import com.vaadin.starter.bakery.test.FormattingTest;
+
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+public class OrderCardTest extends FormattingTest {
+
+	// A Wednesday
+	private final OrderCardContext context = OrderCardContext.of(LocalDate.of(2025, 6, 11));
+
+	private OrderCard card(LocalDate dueDate, OrderCardContext context, OrderItem... items) {
+		Order order = new Order(new User());
+		order.setItems(List.of(items));
+		order.setDueDate(dueDate);
+		order.setDueTime(LocalTime.of(14, 30));
+		PickupLocation location = new PickupLocation();
+		location.setName("Store");
+		order.setPickupLocation(location);
+		return new OrderCard(order, context);
+	}
+
+	@Test
+	public void showsTheTimeOfRecentOrders() {
+		for (LocalDate date : new LocalDate[] { LocalDate.of(2025, 6, 11), LocalDate.of(2025, 6, 10) }) {
+			OrderCard card = card(date, context);
+			Assertions.assertEquals("2:30 PM", card.getTime());
+			Assertions.assertEquals("Store", card.getPlace());
+			Assertions.assertNull(card.getShortDay());
+			Assertions.assertNull(card.getMonth());
+		}
+	}
+
+	@Test
+	public void showsTheDayOfOrdersInTheCurrentWeek() {
+		// Weeks start on Sunday in the application locale
+		for (LocalDate date : new LocalDate[] { LocalDate.of(2025, 6, 8), LocalDate.of(2025, 6, 14) }) {
+			OrderCard card = card(date, context);
+			Assertions.assertEquals(date.getDayOfMonth() == 8 ? "Sun 8" : "Sat 14", card.getShortDay());
+			Assertions.assertEquals("2:30 PM", card.getSecondaryTime());
+			Assertions.assertEquals("Store", card.getPlace());
+			Assertions.assertNull(card.getTime());
+			Assertions.assertNull(card.getFullDay());
+		}
+	}
+
+	@Test
+	public void showsTheDateOfOtherOrders() {
+		OrderCard card = card(LocalDate.of(2025, 6, 15), context);
+		Assertions.assertEquals("Jun 15", card.getMonth());
+		Assertions.assertEquals("Sunday", card.getFullDay());
+		Assertions.assertNull(card.getPlace());
+		Assertions.assertNull(card.getTime());
+		Assertions.assertNull(card.getShortDay());
+		Assertions.assertNull(card.getSecondaryTime());
+	}
+
+	@Test
+	public void endsTheWeekAtTheTurnOfTheYear() {
+		OrderCardContext newYear = OrderCardContext.of(LocalDate.of(2025, 1, 1));
+		Assertions.assertEquals("Fri 3", card(LocalDate.of(2025, 1, 3), newYear).getShortDay());
+		Assertions.assertEquals("Dec 29", card(LocalDate.of(2024, 12, 29), newYear).getMonth());
+		// Belongs to the first week of the next week based year
+		Assertions.assertEquals("Dec 30", card(LocalDate.of(2025, 12, 30), newYear).getMonth());
+	}
+
+	@Test
+	public void sendsEveryProductNameOncePerGrid() {
+		Product bun = new Product();
+		bun.setName("Strawberry Bun");
+		Product pie = new Product();
+		pie.setName("Apple Pie");
+
+		Element grid = new Element("vaadin-grid");
+		OrderCardProductNames productNames = new OrderCardProductNames(grid);
+		OrderCard first = card(LocalDate.of(2025, 6, 15), context, item(bun, 2), item(pie, 1));
+		OrderCard second = card(LocalDate.of(2025, 6, 11), context, item(bun, 5));
+
+		JsonObject json = first.toJson(productNames);
+		Assertions.assertEquals("[0,2,1,1]", json.getArray("items").toJson());
+		Assertions.assertEquals(OrderState.NEW.ordinal(), (int) json.getNumber("state"));
+		Assertions.assertEquals("Jun 15", json.getString("month"));
+		Assertions.assertFalse(json.hasKey("time"));
+
+		Assertions.assertEquals("[0,5]", second.toJson(productNames).getArray("items").toJson());
+		Assertions.assertEquals("[\"Strawberry Bun\",\"Apple Pie\"]",
+				((JsonArray) grid.getPropertyRaw(OrderCardProductNames.PROPERTY)).toJson());
+	}
+
+	private static OrderItem item(Product product, int quantity) {
+		OrderItem item = new OrderItem();
+		item.setProduct(product);
+		item.setQuantity(quantity);
+		return item;
+	}
+}
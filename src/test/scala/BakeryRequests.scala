@@ -0,0 +1,148 @@
+import scala.concurrent.duration._
+
+import io.gatling.core.Predef._
+import io.gatling.core.structure.ChainBuilder
+import io.gatling.http.Predef._
+import io.gatling.http.check.HttpCheck
+import io.gatling.http.request.builder.HttpRequestBuilder
+
+/**
+ * The requests and node id extractors shared by the scenarios in BakeryScenarios.
+ * Like BaristaFlow, they replay the Vaadin client protocol: every UIDL request
+ * carries the security key and the sync and client ids of the previous response.
+ */
+object BakeryRequests {
+
+  def toInt(s: String): Option[Int] = {
+    try {
+      Some(s.toInt)
+    } catch {
+      case _: NumberFormatException => None
+    }
+  }
+
+  def toDouble(s: String): Option[Double] = {
+    try {
+      Some(s.toDouble)
+    } catch {
+      case _: NumberFormatException => None
+    }
+  }
+
+  def intProperty(name: String, default: Int): Int =
+    toInt(System.getProperty(name, "")).getOrElse(default)
+
+  def doubleProperty(name: String, default: Double): Double =
+    toDouble(System.getProperty(name, "")).getOrElse(default)
+
+  // The URL of the system under test
+  val baseUrl: String = System.getProperty("gatling.baseUrl", "http://localhost:8080")
+
+  // The number of grid rows requested at a time, as the vaadin-grid client does
+  val gridPageSize: Int = intProperty("gatling.gridPageSize", 50)
+
+  val httpProtocol = http
+    .baseUrl(baseUrl)
+    .acceptHeader("*/*")
+    .acceptEncodingHeader("gzip, deflate")
+    .acceptLanguageHeader("en-US,en;q=0.5")
+    .userAgentHeader("Mozilla/5.0 (Macintosh; Intel Mac OS X 10.13; rv:57.0) Gecko/20100101 Firefox/57.0")
+
+  val headers_0 = Map(
+    "Accept" -> "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8",
+    "Upgrade-Insecure-Requests" -> "1")
+
+  val headers_4 = Map("Content-type" -> "application/json; charset=UTF-8")
+
+  val initSyncAndClientIds = exec((session) => {
+    session.setAll(
+      "syncId" -> 0,
+      "clientId" -> 0
+    )
+  })
+
+  val url = "/"
+  val uidlUrl = url + "?v-r=uidl&v-uiId=${uiId}"
+
+  val uIdExtract = regex(""""v-uiId":(\d+)""").saveAs("uiId")
+  val syncIdExtract = regex("""syncId":([0-9]*)""").saveAs("syncId")
+  val clientIdExtract = regex("""clientId":([0-9]*)""").saveAs("clientId")
+  val xsrfTokenExtract = regex("""Vaadin-Security-Key":\s?"([^"]*)""").saveAs("seckey")
+
+  val loginOverlayExtract = tagExtract("vaadin-login-overlay", "loginOverlay")
+
+  /** Extracts the node of the first element with the given tag. */
+  def tagExtract(tag: String, key: String): HttpCheck =
+    regex("""node":(\d+),+"type":"put",+"key":"tag",+"feat":[0-9]*,+"value":"""" + tag + "\"").saveAs(key)
+
+  /** Extracts the node of a template child mapped with {@code @Id}. */
+  def idExtract(id: String, key: String): HttpCheck =
+    regex("""node":(\d+),+"type":"put",+"key":"payload",+"feat":[0-9]*,+"value":\{+"type":"@id",+"payload":"""" + id + "\"").saveAs(key)
+
+  /** Extracts the node of the field with the given label. */
+  def labelExtract(label: String, key: String): HttpCheck =
+    regex("""node":(\d+),+"type":"put",+"key":"label",+"feat":[0-9]*,+"value":"""" + label + "\"").saveAs(key)
+
+  var rpcPrefix = """{"csrfToken":"${seckey}","rpc":["""
+  var rpcSuffix = """],"syncId":${syncId},"clientId":${clientId}}"""
+
+  def createRpc(s: String): String = {
+    rpcPrefix + s + rpcSuffix
+  }
+
+  def mSync(node: String, property: String, value: String): String =
+    s"""{"type":"mSync","node":$node,"feature":1,"property":"$property","value":$value}"""
+
+  def event(node: String, event: String): String =
+    s"""{"type":"event","node":$node,"event":"$event","data":{}}"""
+
+  def requestRange(node: String, first: String): String =
+    s"""{"type":"publishedEventHandler","node":$node,"templateEventMethodName":"setRequestedRange","templateEventMethodArgs":[$first,$gridPageSize]}"""
+
+  /** A UIDL request sending the given RPC invocations. */
+  def uidl(name: String, rpc: String*): HttpRequestBuilder =
+    http(name)
+      .post(uidlUrl)
+      .headers(headers_4)
+      .body(StringBody(createRpc(rpc.mkString(",")))).asJson
+      .check(syncIdExtract).check(clientIdExtract)
+
+  /** Opens a view in a new UI, as a page load or a browser refresh does. */
+  def open(name: String, path: String, checks: HttpCheck*): ChainBuilder =
+    exec(http(name)
+      .get(path)
+      .headers(headers_0)
+      .check(uIdExtract)
+      .check(xsrfTokenExtract)
+      .check(checks: _*)
+    )
+      .exec(initSyncAndClientIds)
+
+  /** Logs in through the login overlay, the checks apply to the storefront shown after login. */
+  def login(username: String, password: String, checks: HttpCheck*): ChainBuilder =
+    exec(http("Initial request")
+      .get(url)
+      .headers(headers_0)
+      .check(loginOverlayExtract)
+      .check(uIdExtract)
+      .check(xsrfTokenExtract)
+    )
+      .exec(initSyncAndClientIds)
+      .pause(2, 5)
+      .exec(uidl("Send credentials from login-form",
+        """{"type":"event","node":${loginOverlay},"event":"login","data":{"event.detail.username":"""" + username + """","event.detail.password":"""" + password + """"}}""",
+        mSync("${loginOverlay}", "disabled", "true")))
+      .exec(http("Login")
+        .post("/login")
+        .headers(headers_0)
+        .formParam("username", username)
+        .formParam("password", password)
+        .check(uIdExtract)
+        //After user has sign-in another token is issued
+        .check(xsrfTokenExtract)
+        .check(checks: _*)
+      )
+      .exitHereIfFailed
+      .exec(initSyncAndClientIds)
+      .pause(1, 2)
+}
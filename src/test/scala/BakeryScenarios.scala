@@ -0,0 +1,131 @@
+import scala.concurrent.duration._
+import scala.util.Random
+
+import io.gatling.core.Predef._
+import io.gatling.core.structure.{ChainBuilder, ScenarioBuilder}
+import io.gatling.http.Predef._
+
+import BakeryRequests._
+
+/**
+ * The user flows run by MixedWorkload. Each flow logs in, repeats its
+ * interaction the configured number of times and can be tuned with the system
+ * properties read below.
+ */
+object BakeryScenarios {
+
+  // Managers watching the dashboard: opens it and reloads it every refreshInterval seconds
+  val dashboardRefreshes: Int = intProperty("gatling.dashboard.refreshes", 5)
+  val dashboardRefreshInterval: Int = intProperty("gatling.dashboard.refreshInterval", 30)
+
+  // Baristas searching orders by customer name, typing one character every keystrokeInterval ms
+  val searches: Int = intProperty("gatling.search.repeats", 5)
+  val keystrokeInterval: Int = intProperty("gatling.search.keystrokeInterval", 150)
+  val searchTerms: Seq[String] = System.getProperty("gatling.search.terms", "Mary,Jack,Lucy,Dan,Rob,Sara")
+    .split(",").map(_.trim).filter(_.nonEmpty).toSeq
+
+  // The debounce timeout of the value-changed event of SearchBar
+  val searchDebounce: Int = 300
+
+  // Baristas scrolling deep into the past orders, scrollPages grid pages at a time
+  val scrollPages: Int = intProperty("gatling.scroll.pages", 20)
+  val scrollPause: Int = intProperty("gatling.scroll.pauseMillis", 500)
+
+  // Admins paging through the users and products and editing product prices
+  val adminPages: Int = intProperty("gatling.admin.pages", 3)
+  val adminEdits: Int = intProperty("gatling.admin.edits", 3)
+  val maxProductId: Int = intProperty("gatling.admin.maxProductId", 10)
+
+  val storefrontChecks = Seq(
+    idExtract("grid", "gridId"),
+    idExtract("search", "searchId"),
+    idExtract("field", "searchFieldId"))
+
+  val searchTermFeeder = Iterator.continually(Map("term" -> searchTerms(Random.nextInt(searchTerms.size))))
+
+  val productFeeder = Iterator.continually(Map(
+    "productId" -> (Random.nextInt(maxProductId) + 1),
+    "price" -> "%d.%02d".format(Random.nextInt(9) + 1, Random.nextInt(100))))
+
+  val dashboard: ScenarioBuilder = scenario("Dashboard")
+    .exec(login("baker@vaadin.com", "baker"))
+    .exec(open("Open dashboard", "/dashboard", idExtract("ordersGrid", "ordersGridId")))
+    .exec(uidl("Dashboard orders", requestRange("${ordersGridId}", "0")))
+    .repeat(dashboardRefreshes) {
+      pause(dashboardRefreshInterval seconds)
+        .exec(open("Refresh dashboard", "/dashboard", idExtract("ordersGrid", "ordersGridId")))
+        .exec(uidl("Dashboard orders", requestRange("${ordersGridId}", "0")))
+    }
+
+  // Typing sends the value of the field on every keystroke, the filter is only
+  // applied when the debounced value-changed event fires after the last one
+  val typeSearchTerm = exec(session => session.set("prefixes", session("term").as[String].inits.toList.reverse.tail))
+    .foreach("${prefixes}", "prefix") {
+      if (keystrokeInterval >= searchDebounce) {
+        exec(uidl("Filter orders",
+          mSync("${searchFieldId}", "value", "\"${prefix}\""),
+          event("${searchFieldId}", "value-changed")))
+          .pause(keystrokeInterval milliseconds)
+      } else {
+        exec(uidl("Type search", mSync("${searchFieldId}", "value", "\"${prefix}\"")))
+          .pause(keystrokeInterval milliseconds)
+      }
+    }
+    .doIf(keystrokeInterval < searchDebounce) {
+      pause((searchDebounce - keystrokeInterval) milliseconds)
+        .exec(uidl("Filter orders", event("${searchFieldId}", "value-changed")))
+    }
+    .exec(uidl("Filtered orders", requestRange("${gridId}", "0")))
+
+  val searchAsYouType: ScenarioBuilder = scenario("Search")
+    .exec(login("barista@vaadin.com", "barista", storefrontChecks: _*))
+    .repeat(searches) {
+      feed(searchTermFeeder)
+        .exec(typeSearchTerm)
+        .pause(3, 6)
+        .exec(uidl("Clear search",
+          mSync("${searchFieldId}", "value", "\"\""),
+          event("${searchFieldId}", "value-changed")))
+        .pause(1, 3)
+    }
+
+  val pastOrdersScroll: ScenarioBuilder = scenario("Past orders")
+    .exec(login("barista@vaadin.com", "barista", storefrontChecks: _*))
+    .exec(uidl("Show past orders",
+      mSync("${searchId}", "checkboxChecked", "true"),
+      event("${searchId}", "checkbox-checked-changed")))
+    .exec(uidl("Past orders", requestRange("${gridId}", "0")))
+    .repeat(scrollPages, "page") {
+      pause(scrollPause milliseconds)
+        .exec(session => session.set("first", (session("page").as[Int] + 1) * gridPageSize))
+        .exec(uidl("Scroll past orders", requestRange("${gridId}", "${first}")))
+    }
+
+  def pageThrough(name: String, path: String): ChainBuilder =
+    exec(open("Open " + name, path, tagExtract("vaadin-grid", "crudGridId")))
+      .exec(uidl("Page " + name, requestRange("${crudGridId}", "0")))
+      .repeat(adminPages - 1, "page") {
+        pause(1, 2)
+          .exec(session => session.set("first", (session("page").as[Int] + 1) * gridPageSize))
+          .exec(uidl("Page " + name, requestRange("${crudGridId}", "${first}")))
+      }
+
+  val adminCrud: ScenarioBuilder = scenario("Admin")
+    .exec(login("admin@vaadin.com", "admin"))
+    .exec(pageThrough("users", "/users"))
+    .pause(2, 4)
+    .exec(pageThrough("products", "/products"))
+    .repeat(adminEdits) {
+      feed(productFeeder)
+        .pause(2, 4)
+        .exec(open("Open product editor", "/products/${productId}",
+          tagExtract("vaadin-crud", "crudId"),
+          labelExtract("Unit price", "priceId")))
+        .pause(3, 6)
+        .exec(uidl("Edit product price",
+          mSync("${priceId}", "value", "\"${price}\""),
+          event("${priceId}", "change")))
+        .pause(1, 2)
+        .exec(uidl("Save product", event("${crudId}", "save")))
+    }
+}
@@ -0,0 +1,78 @@
+import scala.concurrent.duration._
+
+import io.gatling.commons.stats.assertion.Assertion
+import io.gatling.core.Predef._
+import io.gatling.core.controller.inject.open.OpenInjectionStep
+import io.gatling.core.structure.ScenarioBuilder
+import io.gatling.http.Predef._
+
+import BakeryRequests._
+
+/**
+ * Runs the flows of BakeryScenarios side by side, the way the application is
+ * used: managers on the dashboard, baristas searching and scrolling the
+ * storefront and admins editing users and products.
+ *
+ * The share of each flow is its weight relative to the sum of the weights, a
+ * flow with weight 0 is not run. The sessions arrive according to the chosen
+ * profile:
+ * - ramp: gatling.users sessions start evenly within gatling.rampSeconds,
+ * - constant: the arrival rate grows to gatling.usersPerSec within
+ *   gatling.rampSeconds and stays there for gatling.steadySeconds,
+ * - spike: gatling.users sessions start at once after gatling.rampSeconds.
+ *
+ * The run fails when the response times or the share of failed requests break
+ * the SLOs. percentile3 and percentile4 are the 95th and 99th percentiles
+ * configured in gatling.conf.
+ */
+class MixedWorkload extends Simulation {
+
+  case class Workload(scenario: ScenarioBuilder, weight: Double, slos: Seq[Assertion])
+
+  val users: Int = intProperty("gatling.users", 100)
+  val usersPerSec: Double = doubleProperty("gatling.usersPerSec", 2)
+  val profile: String = System.getProperty("gatling.profile", "ramp")
+  val rampSeconds: Int = intProperty("gatling.rampSeconds", 60)
+  val steadySeconds: Int = intProperty("gatling.steadySeconds", 300)
+
+  // The SLOs, in milliseconds and percent of all requests
+  val p95: Int = intProperty("gatling.slo.p95", 500)
+  val p99: Int = intProperty("gatling.slo.p99", 1500)
+  val maxFailedPercent: Double = doubleProperty("gatling.slo.maxFailedPercent", 1)
+  val searchP95: Int = intProperty("gatling.slo.searchP95", 300)
+  val scrollP95: Int = intProperty("gatling.slo.scrollP95", 300)
+  val dashboardP95: Int = intProperty("gatling.slo.dashboardP95", 1000)
+  val saveP95: Int = intProperty("gatling.slo.saveP95", 500)
+
+  val workloads = Seq(
+    Workload(BakeryScenarios.dashboard, doubleProperty("gatling.mix.dashboard", 15), Seq(
+      details("Open dashboard").responseTime.percentile3.lt(dashboardP95),
+      details("Refresh dashboard").responseTime.percentile3.lt(dashboardP95))),
+    Workload(BakeryScenarios.searchAsYouType, doubleProperty("gatling.mix.search", 50), Seq(
+      details("Filter orders").responseTime.percentile3.lt(searchP95))),
+    Workload(BakeryScenarios.pastOrdersScroll, doubleProperty("gatling.mix.scroll", 25), Seq(
+      details("Scroll past orders").responseTime.percentile3.lt(scrollP95))),
+    Workload(BakeryScenarios.adminCrud, doubleProperty("gatling.mix.admin", 10), Seq(
+      details("Save product").responseTime.percentile3.lt(saveP95))))
+    .filter(_.weight > 0)
+
+  val totalWeight: Double = workloads.map(_.weight).sum
+
+  def injection(share: Double): Seq[OpenInjectionStep] = profile match {
+    case "ramp" => Seq(rampUsers(math.max(1, math.round(users * share).toInt)) during (rampSeconds seconds))
+    case "constant" => Seq(
+      rampUsersPerSec(0) to (usersPerSec * share) during (rampSeconds seconds),
+      constantUsersPerSec(usersPerSec * share) during (steadySeconds seconds))
+    case "spike" => Seq(
+      nothingFor(rampSeconds seconds),
+      atOnceUsers(math.max(1, math.round(users * share).toInt)))
+    case other => throw new IllegalArgumentException("Unknown gatling.profile " + other)
+  }
+
+  setUp(workloads.map(w => w.scenario.inject(injection(w.weight / totalWeight))): _*)
+    .protocols(httpProtocol)
+    .assertions(Seq(
+      global.responseTime.percentile3.lt(p95),
+      global.responseTime.percentile4.lt(p99),
+      global.failedRequests.percent.lt(maxFailedPercent)) ++ workloads.flatMap(_.slos): _*)
+}